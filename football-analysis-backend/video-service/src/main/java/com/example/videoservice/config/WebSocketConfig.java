@@ -0,0 +1,67 @@
+package com.example.videoservice.config;
+
+import com.example.videoservice.websocket.VideoStatusWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final VideoStatusWebSocketHandler videoStatusWebSocketHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(videoStatusWebSocketHandler, "/api/videos/ws")
+                .addInterceptors(new UserHandshakeInterceptor())
+                .setAllowedOrigins("http://localhost:3000", "http://localhost:3001", "http://127.0.0.1:3000");
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(64 * 1024);
+        container.setMaxSessionIdleTimeout(10 * 60 * 1000L);
+        return container;
+    }
+
+    /**
+     * Requires the gateway's X-User-ID header and records the requested frame format
+     * ({@code ?format=binary}, JSON otherwise) as session attributes.
+     */
+    static class UserHandshakeInterceptor implements HandshakeInterceptor {
+
+        @Override
+        public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Map<String, Object> attributes) {
+            String userId = request.getHeaders().getFirst("X-User-ID");
+            if (userId == null || userId.isBlank()) {
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                return false;
+            }
+            String format = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("format");
+            attributes.put(VideoStatusWebSocketHandler.USER_ID, userId);
+            attributes.put(VideoStatusWebSocketHandler.BINARY, "binary".equalsIgnoreCase(format));
+            return true;
+        }
+
+        @Override
+        public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Exception exception) {
+        }
+    }
+}
@@ -1,30 +1,46 @@
 package com.example.videoservice.controller;
 
 import com.example.videoservice.dto.ai.AICallbackRequest;
+import com.example.videoservice.dto.BatchStatusRequest;
+import com.example.videoservice.dto.BulkProcessRequest;
+import com.example.videoservice.dto.BulkProcessResult;
+import com.example.videoservice.dto.StoredAnalytics;
 import com.example.videoservice.dto.VideoRegistrationRequest;
+import com.example.videoservice.dto.VideoStatusSummary;
+import com.example.videoservice.dto.VideoStatusView;
 import com.example.videoservice.model.ProcessingStatus;
 import com.example.videoservice.model.Video;
+import com.example.videoservice.model.VideoAnalyticsPayload;
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import com.example.videoservice.repository.VideoAnalyticsPayloadRepository;
 import com.example.videoservice.repository.VideoRepository;
 import com.example.videoservice.service.VideoAnalyticsService;
 import com.example.videoservice.service.VideoProcessingService;
 import com.example.videoservice.service.VideoService;
 import com.example.videoservice.service.CloudStorageService;
+import com.example.videoservice.service.ProcessingCallbackService;
+import com.example.videoservice.service.ReplicaReadPolicy;
+import com.example.videoservice.service.StatusChangeRegistry;
+import com.example.videoservice.service.VideoEventBroker;
+import com.example.videoservice.service.VideoStatusCache;
+import com.example.videoservice.util.AnalyticsCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.http.MediaType;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
@@ -33,7 +49,10 @@ import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequ
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -48,6 +67,9 @@ import static jakarta.persistence.GenerationType.UUID;
         allowedHeaders = "*",
         methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class VideoController {
+    private static final String STATUS_VERSION_HEADER = "X-Status-Version";
+    private static final Duration DEFAULT_STATUS_WAIT = Duration.ofSeconds(30);
+
     @Autowired
     private final VideoAnalyticsService videoAnalyticsService;
     @Autowired
@@ -59,11 +81,27 @@ public class VideoController {
     @Autowired
     private final VideoRepository videoRepository;
     @Autowired
+    private final ProcessingCallbackService processingCallbackService;
+    @Autowired
+    private final VideoAnalyticsPayloadRepository videoAnalyticsPayloadRepository;
+    @Autowired
+    private final VideoEventBroker videoEventBroker;
+    @Autowired
+    private final VideoStatusCache videoStatusCache;
+    @Autowired
+    private final StatusChangeRegistry statusChangeRegistry;
+    @Autowired
+    private final ReplicaReadPolicy replicaReadPolicy;
+    @Autowired
     private S3Presigner s3Presigner;
     @Autowired
     private ObjectMapper objectMapper;
     @Value("${digitalocean.spaces.bucket}")
     private String bucketName;
+    @Value("${app.callback.retry-after-seconds:1}")
+    private int callbackRetryAfterSeconds;
+    @Value("${app.status.max-wait:60s}")
+    private Duration maxStatusWait;
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Map<String, Object>> uploadVideo(
@@ -199,81 +237,129 @@ public class VideoController {
         }
     }
 
-    @GetMapping("/{videoId}/status")
-    public ResponseEntity<Map<String, Object>> getProcessingStatus(@PathVariable Long videoId,
-                                                                   @RequestHeader("X-User-ID") String userId) {
+    @PostMapping("/process/bulk")
+    public ResponseEntity<?> processVideos(@RequestBody BulkProcessRequest request,
+                                           @RequestHeader("X-User-ID") String userId) {
         try {
-            logger.info("📊 Getting processing status for video: {} by user: {}", videoId, userId);
+            List<BulkProcessResult> results = videoProcessingService.queueForProcessing(request.getVideoIds(), userId);
 
-            Optional<Video> videoOpt = videoRepository.findByIdAndUserId(videoId, userId);
-            if (videoOpt.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
+            List<Long> queuedIds = results.stream()
+                    .filter(BulkProcessResult::isQueued)
+                    .map(BulkProcessResult::getVideoId)
+                    .toList();
 
-            Video video = videoOpt.get();
-            Map<String, Object> response = new HashMap<>();
+            videoProcessingService.dispatchQueued(queuedIds, userId);
 
-            response.put("status", video.getProcessingStatusString().toLowerCase());
-            response.put("progress", video.getProcessingProgress());
-            response.put("jobId", video.getProcessingJobId());
-            response.put("currentTask", video.getCurrentTask());
-            response.put("outputKey", video.getOutputKey());
-
-            if (video.getAnalyticsData() != null && !video.getAnalyticsData().isEmpty()) {
-                try {
-                    logger.info("📊 Raw analytics data from DB: {}", video.getAnalyticsData());
-
-                    Map<String, Object> analytics = objectMapper.readValue(
-                            video.getAnalyticsData(),
-                            new TypeReference<Map<String, Object>>() {}
-                    );
-                    response.put("analytics", analytics);
-                    logger.info("📊 Analytics successfully parsed and added to response for video {}", videoId);
-                } catch (Exception e) {
-                    logger.error("❌ Failed to parse analytics data for video {}: {}", videoId, e.getMessage());
-                    logger.error("📊 Raw analytics data causing error: {}", video.getAnalyticsData());
-
-                    try {
-                        String analyticsStr = video.getAnalyticsData();
-                        if (analyticsStr.startsWith("{") && !analyticsStr.startsWith("{\"")) {
-
-                            String jsonStr = convertPythonDictToJson(analyticsStr);
-                            logger.info("📊 Converted Python dict to JSON: {}", jsonStr);
-                            Map<String, Object> analytics = objectMapper.readValue(jsonStr, new TypeReference<Map<String, Object>>() {});
-                            response.put("analytics", analytics);
-                            logger.info("📊 Analytics converted from Python dict format for video {}", videoId);
-                        }
-                    } catch (Exception e2) {
-                        logger.error("❌ Failed to convert Python dict format for video {}: {}", videoId, e2.getMessage());
-
-                        response.put("analytics", Map.of(
-                                "team_stats", Map.of(),
-                                "speed_analysis", Map.of(),
-                                "video_id", videoId,
-                                "processing_completed", false,
-                                "error", "Failed to parse analytics data"
-                        ));
-                    }
-                }
-            } else {
+            return ResponseEntity.ok(Map.of(
+                    "results", results,
+                    "queued", queuedIds.size(),
+                    "requested", results.size()
+            ));
 
-                response.put("analytics", Map.of(
-                        "team_stats", Map.of(),
-                        "speed_analysis", Map.of(),
-                        "video_id", videoId,
-                        "processing_completed", false
-                ));
-                logger.info("📊 No analytics data available for video {}", videoId);
-            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("⚠️ Invalid bulk processing request from user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("❌ Error starting bulk processing for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to start processing", "message", e.getMessage()));
+        }
+    }
 
-            if (video.getProcessingError() != null && !video.getProcessingError().isEmpty()) {
-                response.put("error", video.getProcessingError());
-            }
+    /**
+     * Status, progress, current task and error for many videos in one query, without analytics.
+     * With {@code knownVersions} only the entries that changed since those versions are returned.
+     */
+    @PostMapping("/status:batch")
+    public ResponseEntity<?> getProcessingStatuses(@RequestBody BatchStatusRequest request,
+                                                   @RequestHeader("X-User-ID") String userId) {
+        try {
+            VideoService.StatusBatch batch = videoService.getStatuses(request, userId);
+
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(Map.of(
+                            "statuses", batch.getStatuses(),
+                            "unchanged", batch.getUnchanged(),
+                            "missing", batch.getMissing(),
+                            "requested", batch.getRequested()
+                    ));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("⚠️ Invalid status batch request from user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("❌ Error getting video statuses for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to get video statuses"));
+        }
+    }
 
-            logger.info("✅ Returning status for video {}: {} ({}%)", videoId,
-                    video.getProcessingStatusString().toLowerCase(), video.getProcessingProgress());
+    @GetMapping("/active")
+    public ResponseEntity<?> getActiveStatuses(@RequestHeader("X-User-ID") String userId) {
+        try {
+            List<VideoStatusSummary> statuses = videoService.getActiveStatuses(userId);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(Map.of("statuses", statuses, "count", statuses.size()));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("❌ Error getting active videos for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to get active videos"));
+        }
+    }
+
+    @GetMapping(value = "/{videoId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProcessingEvents(
+            @PathVariable Long videoId,
+            @RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        Optional<VideoStatusView> statusOpt = replicaReadPolicy.read(videoId,
+                () -> videoRepository.findStatusViewByIdAndUserId(videoId, userId));
+        if (statusOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        VideoStatusChangedEvent snapshot = statusOpt.get().toEvent();
+        long resumeAfter = parseLastEventId(lastEventId);
+
+        // 204 tells EventSource to stop reconnecting once the client has seen the final state
+        if (snapshot.isTerminal() && resumeAfter >= snapshot.version()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(videoEventBroker.subscribe(snapshot, resumeAfter));
+    }
+
+    private static long parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @GetMapping("/{videoId}/status")
+    public ResponseEntity<?> getProcessingStatus(@PathVariable Long videoId,
+                                                 @RequestHeader("X-User-ID") String userId,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            VideoStatusCache.StatusSnapshot snapshot = currentStatus(videoId, userId);
+            if (snapshot == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return statusResponse(snapshot, ifNoneMatch);
 
         } catch (Exception e) {
             logger.error("❌ Error getting video status: {}", e.getMessage(), e);
@@ -282,15 +368,167 @@ public class VideoController {
         }
     }
 
-    private String convertPythonDictToJson(String pythonDict) {
+    /**
+     * Long-poll variant: parks the request without holding a thread until the video's status_version moves
+     * past {@code waitForVersion}, then answers like {@code /status}. Answers 304 when the wait times out.
+     */
+    @GetMapping(value = "/{videoId}/status", params = "waitForVersion")
+    public DeferredResult<ResponseEntity<?>> waitForProcessingStatus(
+            @PathVariable Long videoId,
+            @RequestHeader("X-User-ID") String userId,
+            @RequestParam long waitForVersion,
+            @RequestParam(defaultValue = "30s") String timeout) {
+
+        Duration wait = parseWaitTimeout(timeout);
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(wait.toMillis());
+
+        // Register before reading the current version so a change in between is not missed
+        StatusChangeRegistry.Waiter waiter = statusChangeRegistry.register(videoId, waitForVersion,
+                () -> completeWithStatus(result, videoId, userId));
+        result.onCompletion(() -> statusChangeRegistry.cancel(waiter));
+        result.onTimeout(() -> result.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .header(STATUS_VERSION_HEADER, Long.toString(waitForVersion))
+                .build()));
+
+        try {
+            VideoStatusCache.StatusSnapshot snapshot = currentStatus(videoId, userId);
+            if (snapshot == null) {
+                result.setResult(ResponseEntity.notFound().build());
+            } else if (snapshot.version() > waitForVersion) {
+                result.setResult(statusResponse(snapshot, null));
+            }
+        } catch (Exception e) {
+            logger.error("❌ Error getting video status: {}", e.getMessage(), e);
+            result.setResult(ResponseEntity.status(500).body(Map.of("error", "Failed to get video status")));
+        }
+        return result;
+    }
+
+    private void completeWithStatus(DeferredResult<ResponseEntity<?>> result, Long videoId, String userId) {
+        try {
+            VideoStatusCache.StatusSnapshot snapshot = currentStatus(videoId, userId);
+            result.setResult(snapshot != null ? statusResponse(snapshot, null) : ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("❌ Error getting video status: {}", e.getMessage(), e);
+            result.setResult(ResponseEntity.status(500).body(Map.of("error", "Failed to get video status")));
+        }
+    }
+
+    private Duration parseWaitTimeout(String timeout) {
+        Duration wait;
+        try {
+            wait = DurationStyle.detectAndParse(timeout, ChronoUnit.SECONDS);
+        } catch (IllegalArgumentException e) {
+            wait = DEFAULT_STATUS_WAIT;
+        }
+        if (wait.compareTo(Duration.ofSeconds(1)) < 0) {
+            return Duration.ofSeconds(1);
+        }
+        return wait.compareTo(maxStatusWait) > 0 ? maxStatusWait : wait;
+    }
+
+    /**
+     * Cached snapshot, or one built from the database and cached. Null when the video does not exist
+     * or belongs to another user.
+     */
+    private VideoStatusCache.StatusSnapshot currentStatus(Long videoId, String userId) throws JsonProcessingException {
+        VideoStatusCache.StatusSnapshot cached = videoStatusCache.get(videoId, userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        logger.info("📊 Getting processing status for video: {} by user: {}", videoId, userId);
+
+        long readStamp = videoStatusCache.stamp();
+        Optional<VideoStatusView> statusOpt = replicaReadPolicy.read(videoId,
+                () -> videoRepository.findStatusViewByIdAndUserId(videoId, userId));
+        if (statusOpt.isEmpty()) {
+            return null;
+        }
+
+        VideoStatusView video = statusOpt.get();
+        long version = video.getVersion();
+        String status = video.getProcessingStatusEnum().name().toLowerCase();
+        Map<String, Object> response = new HashMap<>();
+
+        response.put("version", version);
+        response.put("status", status);
+        response.put("progress", video.getProcessingProgress());
+        response.put("jobId", video.getProcessingJobId());
+        response.put("currentTask", video.getCurrentTask());
+        response.put("outputKey", video.getOutputKey());
+
+        Optional<VideoAnalyticsPayload> payload = replicaReadPolicy.read(videoId,
+                () -> videoAnalyticsPayloadRepository.findById(videoId));
+        String analyticsText = payload.map(VideoAnalyticsPayload::getPayloadText).orElse(null);
+
+        if (payload.isPresent() && payload.get().hasBlob()) {
+            response.put("analytics", StoredAnalytics.ofBlob(payload.get().getPayloadBlob()));
+        } else if (analyticsText != null && !analyticsText.isEmpty()) {
+            response.put("analytics", AnalyticsCodec.isJsonDocument(analyticsText)
+                    ? StoredAnalytics.ofJson(analyticsText)
+                    : StoredAnalytics.ofPythonLiteral(analyticsText));
+        } else {
+
+            response.put("analytics", Map.of(
+                    "team_stats", Map.of(),
+                    "speed_analysis", Map.of(),
+                    "video_id", videoId,
+                    "processing_completed", false
+            ));
+            logger.info("📊 No analytics data available for video {}", videoId);
+        }
+
+        if (video.getProcessingError() != null && !video.getProcessingError().isEmpty()) {
+            response.put("error", video.getProcessingError());
+        }
+
+        logger.info("✅ Returning status for video {}: {} ({}%)", videoId, status, video.getProcessingProgress());
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            logger.error("❌ Failed to decode stored analytics for video {}: {}", videoId, e.getMessage());
+            response.put("analytics", Map.of(
+                    "team_stats", Map.of(),
+                    "speed_analysis", Map.of(),
+                    "video_id", videoId,
+                    "processing_completed", false,
+                    "error", "Failed to parse analytics data"
+            ));
+            body = objectMapper.writeValueAsBytes(response);
+        }
+
+        VideoStatusCache.StatusSnapshot snapshot = new VideoStatusCache.StatusSnapshot(
+                videoId, userId, version, statusETag(video), body);
+        videoStatusCache.put(snapshot, readStamp);
+        return snapshot;
+    }
+
+    private static ResponseEntity<?> statusResponse(VideoStatusCache.StatusSnapshot snapshot, String ifNoneMatch) {
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .header(STATUS_VERSION_HEADER, Long.toString(snapshot.version()))
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .header(STATUS_VERSION_HEADER, Long.toString(snapshot.version()))
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
+    }
 
-        return pythonDict
-                .replaceAll("([a-zA-Z_][a-zA-Z0-9_]*)(\\s*)=", "\"$1\"$2:")
-                .replace("True", "true")
-                .replace("False", "false")
-                .replace("None", "null")
-                .replaceAll(":\\s*([a-zA-Z_][a-zA-Z0-9_]*)(\\s*[,}])", ": \"$1\"$2")
-                .replaceAll(":\\s*([0-9]+\\.?[0-9]*)(\\s*[,}])", ": $1$2");
+    // status_version covers callback writes; updated_at also changes on entity saves that do not bump it
+    private static String statusETag(VideoStatusView video) {
+        long version = video.getVersion();
+        long updatedAt = video.getUpdatedAt() != null
+                ? video.getUpdatedAt().atZone(ZoneOffset.UTC).toInstant().toEpochMilli()
+                : 0L;
+        return "\"" + version + "-" + Long.toString(updatedAt, 36) + "\"";
     }
 
     @GetMapping("/{videoId}/analytics")
@@ -308,7 +546,7 @@ public class VideoController {
                 ));
             }
 
-            Map<String, Object> analytics = videoAnalyticsService.getAnalyticsSummary(videoId);
+            Map<String, Object> analytics = videoAnalyticsService.load(video).summary();
             return ResponseEntity.ok(analytics);
 
         } catch (Exception e) {
@@ -323,8 +561,8 @@ public class VideoController {
             @RequestHeader("X-User-ID") String userId) {
 
         try {
-            videoService.getVideoById(videoId, userId);
-            Map<String, Object> teamStats = videoAnalyticsService.getTeamStatistics(videoId);
+            Video video = videoService.getVideoById(videoId, userId);
+            Map<String, Object> teamStats = videoAnalyticsService.load(video).teamStatistics();
             return ResponseEntity.ok(teamStats);
 
         } catch (Exception e) {
@@ -339,8 +577,8 @@ public class VideoController {
             @RequestHeader("X-User-ID") String userId) {
 
         try {
-            videoService.getVideoById(videoId, userId);
-            Map<String, Object> speedData = videoAnalyticsService.getSpeedDistanceData(videoId);
+            Video video = videoService.getVideoById(videoId, userId);
+            Map<String, Object> speedData = videoAnalyticsService.load(video).speedDistance();
             return ResponseEntity.ok(speedData);
 
         } catch (Exception e) {
@@ -349,73 +587,28 @@ public class VideoController {
         }
     }
 
-    @PostMapping("/processing-callback")
-    public ResponseEntity<Map<String, Object>> processingCallback(@RequestBody Map<String, Object> callbackData) {
+    @PostMapping(value = "/processing-callback", consumes = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            "application/x-jackson-smile"
+    })
+    public ResponseEntity<Map<String, Object>> processingCallback(@RequestBody AICallbackRequest callback) {
         try {
-            logger.info("🔔 Received processing callback: {}", callbackData);
-
-            Long videoId = Long.valueOf(callbackData.get("video_id").toString());
-            String status = callbackData.get("status").toString();
-            Integer progress = Integer.valueOf(callbackData.get("progress").toString());
-            String message = callbackData.getOrDefault("message", "").toString();
-            String outputKey = callbackData.getOrDefault("output_key", "").toString();
-
-            Optional<Video> videoOpt = videoRepository.findById(videoId);
-            if (videoOpt.isEmpty()) {
-                logger.error("❌ Video not found: {}", videoId);
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Video not found"));
-            }
-
-            Video video = videoOpt.get();
-
-            video.setProcessingStatus(ProcessingStatus.valueOf(status.toUpperCase()));
-            video.setProcessingProgress(progress);
-            video.setCurrentTask(message);
-
-            if (outputKey != null && !outputKey.isEmpty()) {
-                video.setOutputKey(outputKey);
-            }
-
-            Object analyticsObj = callbackData.get("analytics");
-            if (analyticsObj != null) {
-                try {
-                    String analyticsJson;
-                    if (analyticsObj instanceof String) {
-
-                        analyticsJson = (String) analyticsObj;
-                        logger.info("📊 Analytics received as string: {}", analyticsJson);
-                    } else {
-
-                        analyticsJson = objectMapper.writeValueAsString(analyticsObj);
-                        logger.info("📊 Analytics converted to JSON: {}", analyticsJson);
-                    }
-
-                    video.setAnalyticsData(analyticsJson);
-
-                    Map<String, Object> parsedAnalytics = objectMapper.readValue(analyticsJson, new TypeReference<Map<String, Object>>() {});
-                    logger.info("✅ Analytics successfully stored and validated for video {}", videoId);
-
-                } catch (Exception e) {
-                    logger.error("❌ Failed to process analytics data: {}", e.getMessage(), e);
-
-                }
-            }
-
-            if ("completed".equalsIgnoreCase(status)) {
-                video.setProcessingCompletedAt(LocalDateTime.now());
-                video.setCompletedAt(LocalDateTime.now());
-                video.setAiAnalysisCompleted(true);
-                logger.info("📊 Analytics saved for video {}", videoId);
-            } else if ("failed".equalsIgnoreCase(status)) {
-                String error = callbackData.getOrDefault("error", "Unknown error").toString();
-                video.setProcessingError(error);
-            }
-
-            videoRepository.save(video);
-            logger.info("✅ Updated video {} status to {} ({}%)", videoId, status, progress);
-
-            return ResponseEntity.ok(Map.of("message", "Callback processed successfully"));
+            logger.info("🔔 Received processing callback for video {}: status={}, progress={}, analytics={}",
+                    callback.getVideoId(), callback.getStatus(), callback.getProgress(), callback.hasAnalytics());
+
+            ProcessingCallbackService.CallbackOutcome outcome = processingCallbackService.acceptCallback(callback);
+
+            return switch (outcome) {
+                case INVALID -> ResponseEntity.badRequest()
+                        .body(Map.of("error", "A valid video_id and status are required"));
+                case DUPLICATE -> ResponseEntity.ok(Map.of("message", "Duplicate callback ignored"));
+                case BUSY -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(callbackRetryAfterSeconds))
+                        .body(Map.of("error", "Callback backlog is full, retry later"));
+                case ACCEPTED -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(Map.of("message", "Callback accepted"));
+            };
 
         } catch (Exception e) {
             logger.error("❌ Error processing callback: {}", e.getMessage(), e);
@@ -424,23 +617,46 @@ public class VideoController {
         }
     }
 
+    /**
+     * Library listing, newest first. Pass {@code nextCursor} from the previous response as {@code cursor}
+     * for the next page; {@code includeTotal} adds the library size from a cached count.
+     * The old offset parameter is only honoured as {@code page=0}, which returns the first page with the
+     * legacy totalElements/totalPages/currentPage fields; any other page is rejected in favour of the cursor.
+     */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getVideos(
             @RequestHeader("X-User-ID") String userId,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        if (page != null && (page != 0 || cursor != null)) {
+            log.warn("⚠️ Offset page {} requested by user {}", page, userId);
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "Offset paging is no longer supported, pass nextCursor from the previous response as cursor"));
+        }
 
         try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-            Page<Video> videos = videoService.getUserVideos(userId, pageable);
+            VideoService.LibraryPage library = videoService.getUserVideos(userId, cursor, size);
 
-            return ResponseEntity.ok(Map.of(
-                    "videos", videos.getContent(),
-                    "totalElements", videos.getTotalElements(),
-                    "totalPages", videos.getTotalPages(),
-                    "currentPage", page
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("videos", library.getVideos());
+            response.put("nextCursor", library.getNextCursor());
+            response.put("hasMore", library.hasMore());
+            if (page != null) {
+                long total = videoService.countUserVideos(userId);
+                response.put("totalElements", total);
+                response.put("totalPages", (total + library.getPageSize() - 1) / library.getPageSize());
+                response.put("currentPage", 0);
+            } else if (includeTotal) {
+                response.put("totalElements", videoService.countUserVideos(userId));
+            }
+            return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ Invalid library cursor from user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("❌ Error getting videos: {}", e.getMessage());
             return ResponseEntity.internalServerError().body(
@@ -579,7 +795,7 @@ public class VideoController {
                     "userMatches", userMatches,
                     "status", video.getProcessingStatusString(),
                     "outputKey", video.getOutputKey(),
-                    "hasAnalytics", video.getAnalyticsData() != null
+                    "hasAnalytics", videoAnalyticsPayloadRepository.existsById(videoId)
             ));
 
         } catch (Exception e) {
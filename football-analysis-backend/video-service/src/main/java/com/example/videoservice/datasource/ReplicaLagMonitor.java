@@ -0,0 +1,77 @@
+package com.example.videoservice.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Staleness policy for the replicas: each one is polled for its replay lag and only takes reads while
+ * the lag is within {@code max-lag}. A server that is not in recovery reports no lag, which lets two
+ * independent local PostgreSQL instances stand in for a primary and a replica.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // NULL when the replica has received WAL it has not replayed yet and no replay time is known
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final long maxLagMillis;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, Duration maxLag, MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagMillis = maxLag.toMillis();
+
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            Gauge.builder("video.db.replica.lag", replica, ReplicaRoutingDataSource.Replica::getLagMillis)
+                    .tag("pool", replica.getName())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("video.db.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .tag("pool", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:2000}")
+    public void check() {
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            double lag = measureLag(replica);
+            boolean healthy = !Double.isNaN(lag) && lag <= maxLagMillis;
+
+            if (healthy != replica.isHealthy()) {
+                if (healthy) {
+                    log.info("✅ Replica {} back in rotation ({} ms behind)", replica.getName(), Math.round(lag));
+                } else {
+                    log.warn("⚠️ Replica {} taken out of rotation (lag {} ms, max {} ms)",
+                            replica.getName(), Double.isNaN(lag) ? "unknown" : Math.round(lag), maxLagMillis);
+                }
+            }
+            replica.update(healthy, lag);
+        }
+    }
+
+    private static double measureLag(ReplicaRoutingDataSource.Replica replica) {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            if (!rs.next()) {
+                return Double.NaN;
+            }
+            double lag = rs.getDouble(1);
+            return rs.wasNull() ? Double.NaN : lag;
+        } catch (Exception e) {
+            log.debug("Replica {} lag check failed: {}", replica.getName(), e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStatusRequest {
+    private List<Long> videoIds;
+
+    // Last status version the client has seen per video; entries that have not moved past it are left out
+    private Map<Long, Long> knownVersions;
+}
@@ -0,0 +1,14 @@
+package com.example.videoservice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkProcessRequest {
+    private List<Long> videoIds;
+}
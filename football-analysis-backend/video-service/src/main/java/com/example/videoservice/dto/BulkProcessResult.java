@@ -0,0 +1,24 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkProcessResult {
+    private Long videoId;
+    private String status;
+    private String message;
+
+    public static BulkProcessResult of(Long videoId, String status, String message) {
+        return new BulkProcessResult(videoId, status, message);
+    }
+
+    public boolean isQueued() {
+        return "queued".equals(status);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What the AI service needs to start a job: the video id, its owner and the uploaded file key.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchTarget {
+    private Long videoId;
+    private String userId;
+    private String originalFileKey;
+}
@@ -0,0 +1,60 @@
+package com.example.videoservice.dto;
+
+import com.example.videoservice.util.AnalyticsCodec;
+import com.example.videoservice.util.PythonLiteralParser;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+
+/**
+ * Stored analytics placed in a response as-is: a blob is transcoded token by token from Smile into the
+ * response generator, already-validated JSON text is spliced in with {@code writeRawValue}. Neither builds
+ * a Map. A corrupt blob or unparseable literal fails serialization, so callers must be ready to rebuild
+ * the response.
+ */
+public final class StoredAnalytics extends JsonSerializable.Base {
+
+    private final byte[] blob;
+    private final String json;
+    private final String pythonLiteral;
+
+    private StoredAnalytics(byte[] blob, String json, String pythonLiteral) {
+        this.blob = blob;
+        this.json = json;
+        this.pythonLiteral = pythonLiteral;
+    }
+
+    public static StoredAnalytics ofBlob(byte[] blob) {
+        return new StoredAnalytics(blob, null, null);
+    }
+
+    /** {@code json} must already be known to be a single valid JSON document. */
+    public static StoredAnalytics ofJson(String json) {
+        return new StoredAnalytics(null, json, null);
+    }
+
+    /** Legacy Python repr text, transcoded by {@link PythonLiteralParser} while the response is written. */
+    public static StoredAnalytics ofPythonLiteral(String literal) {
+        return new StoredAnalytics(null, null, literal);
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        if (blob != null) {
+            AnalyticsCodec.copyTo(blob, generator);
+        } else if (json != null) {
+            generator.writeRawValue(json);
+        } else {
+            PythonLiteralParser.transcode(pythonLiteral, generator);
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers,
+                                  TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, serializers);
+    }
+}
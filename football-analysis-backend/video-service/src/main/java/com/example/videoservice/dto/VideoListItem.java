@@ -0,0 +1,60 @@
+package com.example.videoservice.dto;
+
+import com.example.videoservice.model.ProcessingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the video library listing. Property names match the entity's JSON so existing clients
+ * keep working, but only the columns the list renders are selected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoListItem {
+    private Long id;
+    private String userId;
+    private String title;
+    private Long fileSize;
+    private String contentType;
+    private Integer durationSeconds;
+    private ProcessingStatus processingStatus;
+    private Integer processingProgress;
+    private String processingError;
+    private Boolean aiAnalysisCompleted;
+    private String processedFileKey;
+    private Long statusVersion;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public boolean isAiAnalysisCompleted() {
+        return Boolean.TRUE.equals(aiAnalysisCompleted);
+    }
+
+    public String getOutputKey() {
+        return processedFileKey;
+    }
+
+    public boolean isProcessing() {
+        return ProcessingStatus.PROCESSING.equals(processingStatus);
+    }
+
+    public boolean isQueued() {
+        return ProcessingStatus.QUEUED.equals(processingStatus);
+    }
+
+    public boolean isCompleted() {
+        return ProcessingStatus.COMPLETED.equals(processingStatus);
+    }
+
+    public boolean isFailed() {
+        return ProcessingStatus.FAILED.equals(processingStatus);
+    }
+
+    public boolean isUploaded() {
+        return ProcessingStatus.UPLOADED.equals(processingStatus);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.videoservice.dto;
+
+import com.example.videoservice.model.ProcessingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status columns of one video, selected by a JPQL constructor expression so the batch status
+ * endpoint never loads the entity or its analytics.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoStatusSummary {
+    private Long videoId;
+    private long version;
+    private String status;
+    private Integer progress;
+    private String currentTask;
+    private String error;
+
+    public VideoStatusSummary(Long videoId, Long version, ProcessingStatus status, Integer progress,
+                              String currentTask, String error) {
+        this(videoId,
+                version != null ? version : 0L,
+                (status != null ? status : ProcessingStatus.UPLOADED).name().toLowerCase(),
+                progress,
+                currentTask,
+                error);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.videoservice.dto;
+
+import com.example.videoservice.model.ProcessingStatus;
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns behind a single-video status response, SSE snapshot or WebSocket subscription,
+ * selected without the descriptive and file columns of the entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoStatusView {
+    private Long videoId;
+    private Long statusVersion;
+    private ProcessingStatus processingStatus;
+    private Integer processingProgress;
+    private String processingJobId;
+    private String currentTask;
+    private String outputKey;
+    private String processingError;
+    private LocalDateTime updatedAt;
+
+    public long getVersion() {
+        return statusVersion != null ? statusVersion : 0L;
+    }
+
+    public ProcessingStatus getProcessingStatusEnum() {
+        return processingStatus != null ? processingStatus : ProcessingStatus.UPLOADED;
+    }
+
+    public VideoStatusChangedEvent toEvent() {
+        int progress = processingProgress != null ? processingProgress : 0;
+        return new VideoStatusChangedEvent(videoId, getVersion(), getProcessingStatusEnum(), progress,
+                currentTask, outputKey, processingError);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.videoservice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Client message on the status WebSocket, e.g. {@code {"op":"subscribe","videoIds":[1,2,3]}}.
+ */
+@Data
+@NoArgsConstructor
+public class VideoSubscriptionCommand {
+
+    private String op;
+
+    private List<Long> videoIds;
+}
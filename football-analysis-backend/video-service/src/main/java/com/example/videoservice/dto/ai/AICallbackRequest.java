@@ -1,29 +1,55 @@
 package com.example.videoservice.dto.ai;
 
+import com.example.videoservice.util.RawJsonDeserializer;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.ToString;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class AICallbackRequest {
 
+    @JsonProperty("video_id")
     private String videoId;
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    @JsonProperty("user_id")
     private String userId;
+
     private String status;
+
+    @JsonProperty("output_key")
     private String outputKey;
+
     private String error;
     private Integer progress;
     private String message;
+
+    @JsonProperty("processing_time_ms")
     private Long processingTimeMs;
 
+    @JsonProperty("processing_stage")
     private String processingStage;
+
     private Double confidence;
+
+    @JsonProperty("analysis_type")
     private String analysisType;
 
+    @ToString.Exclude
+    @JsonDeserialize(using = RawJsonDeserializer.class)
+    private String analytics;
+
     public boolean isCompleted() {
         return "COMPLETED".equalsIgnoreCase(status);
     }
@@ -36,7 +62,11 @@ public class AICallbackRequest {
         return "PROCESSING".equalsIgnoreCase(status);
     }
 
+    public boolean hasAnalytics() {
+        return analytics != null && !analytics.isEmpty();
+    }
+
     public int getProgressSafe() {
         return progress != null ? progress : 0;
     }
-}
\ No newline at end of file
+}
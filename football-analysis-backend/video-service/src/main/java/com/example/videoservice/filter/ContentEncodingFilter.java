@@ -0,0 +1,198 @@
+package com.example.videoservice.filter;
+
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses {@code Content-Encoding: gzip} and {@code zstd} request bodies of processing callbacks
+ * as a stream, so the message converter (JSON, CBOR or Smile) parses while the body is inflated.
+ */
+@Component
+@Slf4j
+public class ContentEncodingFilter extends OncePerRequestFilter {
+
+    private static final String CALLBACK_PATH = "/api/videos/processing-callback";
+
+    private final long maxDecodedBytes;
+
+    public ContentEncodingFilter(@Value("${app.callback.max-decoded-bytes:67108864}") long maxDecodedBytes) {
+        this.maxDecodedBytes = maxDecodedBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                || !CALLBACK_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING).trim().toLowerCase(Locale.ROOT);
+
+        InputStream decoded;
+        switch (encoding) {
+            case "identity" -> {
+                chain.doFilter(request, response);
+                return;
+            }
+            case "gzip", "x-gzip" -> decoded = new GZIPInputStream(request.getInputStream(), 8192);
+            case "zstd" -> decoded = new ZstdInputStream(request.getInputStream());
+            default -> {
+                log.warn("⚠️ Unsupported Content-Encoding on callback: {}", encoding);
+                response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Encoding: " + encoding);
+                return;
+            }
+        }
+
+        chain.doFilter(new DecodedRequest(request, new LimitedInputStream(decoded, maxDecodedBytes)), response);
+    }
+
+    private static final class DecodedRequest extends HttpServletRequestWrapper {
+
+        private static final Set<String> HIDDEN_HEADERS = Set.of(
+                HttpHeaders.CONTENT_ENCODING.toLowerCase(Locale.ROOT),
+                HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT));
+
+        private final ServletInputStream body;
+
+        DecodedRequest(HttpServletRequest request, InputStream decoded) {
+            super(request);
+            this.body = new ServletInputStream() {
+                private volatile boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int value = decoded.read();
+                    if (value < 0) {
+                        finished = true;
+                    }
+                    return value;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = decoded.read(buffer, offset, length);
+                    if (read < 0) {
+                        finished = true;
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    decoded.close();
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                // Reads block on the inflater, so there is never a moment where data is known to be unavailable
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new IllegalStateException("Decoded callback bodies are read blocking; async is not supported");
+                }
+            };
+        }
+
+        // The inflater cannot be driven by a ReadListener, so the request refuses to go async at all
+        @Override
+        public boolean isAsyncSupported() {
+            return false;
+        }
+
+        @Override
+        public AsyncContext startAsync() {
+            throw new IllegalStateException("Async processing is not supported for decoded callback bodies");
+        }
+
+        @Override
+        public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+            throw new IllegalStateException("Async processing is not supported for decoded callback bodies");
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return HIDDEN_HEADERS.contains(name.toLowerCase(Locale.ROOT)) ? null : super.getHeader(name);
+        }
+    }
+
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long consumed;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int bytes) throws IOException {
+            consumed += bytes;
+            if (consumed > limit) {
+                throw new IOException("Decoded callback body exceeds " + limit + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.videoservice.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transition table for status changes reported by the AI service.
+ * Updates are applied with {@code WHERE processing_status IN sourcesOf(target)}, so the database enforces it.
+ */
+public final class ProcessingStateMachine {
+
+    private static final Map<ProcessingStatus, Set<ProcessingStatus>> TRANSITIONS = new EnumMap<>(ProcessingStatus.class);
+    private static final Map<ProcessingStatus, Set<ProcessingStatus>> SOURCES = new EnumMap<>(ProcessingStatus.class);
+
+    static {
+        allow(ProcessingStatus.UPLOADED, ProcessingStatus.QUEUED, ProcessingStatus.PROCESSING, ProcessingStatus.FAILED);
+        allow(ProcessingStatus.PENDING, ProcessingStatus.QUEUED, ProcessingStatus.PROCESSING, ProcessingStatus.FAILED);
+        allow(ProcessingStatus.QUEUED, ProcessingStatus.QUEUED, ProcessingStatus.PROCESSING,
+                ProcessingStatus.COMPLETED, ProcessingStatus.FAILED);
+        allow(ProcessingStatus.PROCESSING, ProcessingStatus.PROCESSING, ProcessingStatus.COMPLETED, ProcessingStatus.FAILED);
+        allow(ProcessingStatus.COMPLETED);
+        allow(ProcessingStatus.FAILED);
+
+        for (ProcessingStatus status : ProcessingStatus.values()) {
+            SOURCES.put(status, EnumSet.noneOf(ProcessingStatus.class));
+        }
+        TRANSITIONS.forEach((from, targets) -> targets.forEach(to -> SOURCES.get(to).add(from)));
+        SOURCES.replaceAll((to, from) -> Collections.unmodifiableSet(from));
+    }
+
+    private ProcessingStateMachine() {
+    }
+
+    private static void allow(ProcessingStatus from, ProcessingStatus... targets) {
+        Set<ProcessingStatus> allowed = EnumSet.noneOf(ProcessingStatus.class);
+        Collections.addAll(allowed, targets);
+        TRANSITIONS.put(from, Collections.unmodifiableSet(allowed));
+    }
+
+    public static boolean canTransition(ProcessingStatus from, ProcessingStatus to) {
+        return TRANSITIONS.get(from).contains(to);
+    }
+
+    public static Set<ProcessingStatus> sourcesOf(ProcessingStatus target) {
+        return SOURCES.get(target);
+    }
+
+    public static ProcessingStatus parse(String status) {
+        if (status == null) {
+            return null;
+        }
+
+        try {
+            return ProcessingStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
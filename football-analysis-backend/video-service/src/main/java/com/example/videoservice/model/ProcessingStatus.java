@@ -1,10 +1,19 @@
 package com.example.videoservice.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum ProcessingStatus {
     PENDING,
     PROCESSING,
     UPLOADED,
     QUEUED,
     COMPLETED,
-    FAILED
+    FAILED;
+
+    public static final Set<ProcessingStatus> TERMINAL = EnumSet.of(COMPLETED, FAILED);
+
+    public boolean isTerminal() {
+        return TERMINAL.contains(this);
+    }
 }
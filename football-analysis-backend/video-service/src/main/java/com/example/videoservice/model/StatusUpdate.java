@@ -0,0 +1,19 @@
+package com.example.videoservice.model;
+
+public record StatusUpdate(Long videoId,
+                           ProcessingStatus status,
+                           int progress,
+                           String currentTask,
+                           String outputKey,
+                           String analytics,
+                           String error,
+                           long receivedNanos) {
+
+    public boolean isProgressOnly() {
+        return !status.isTerminal() && outputKey == null && analytics == null;
+    }
+
+    public boolean supersedes(StatusUpdate other) {
+        return progress > other.progress || (progress == other.progress && status != other.status);
+    }
+}
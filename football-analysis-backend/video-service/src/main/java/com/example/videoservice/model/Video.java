@@ -1,16 +1,23 @@
 package com.example.videoservice.model;
 
+import com.example.videoservice.service.LibraryCountListener;
+import com.example.videoservice.service.VideoStatusCacheListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "video")
+@EntityListeners({VideoStatusCacheListener.class, LibraryCountListener.class})
 @Table(name = "videos")
 @Data
 @NoArgsConstructor
@@ -19,7 +26,8 @@ import java.time.LocalDateTime;
 public class Video {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "videos_id_seq")
+    @SequenceGenerator(name = "videos_id_seq", sequenceName = "videos_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", updatable = false, nullable = false, length = 36)
@@ -88,12 +96,13 @@ public class Video {
     @Column(name = "current_task")
     private String currentTask;
 
-    @Column(name = "analytics_data", columnDefinition = "TEXT")
-    private String analyticsData;
-
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // Bumped by every status UPDATE in SQL, never written through the entity
+    @Column(name = "status_version", insertable = false, updatable = false)
+    private Long statusVersion;
+
     public boolean isAiAnalysisCompleted() {
         return Boolean.TRUE.equals(aiAnalysisCompleted);
     }
@@ -0,0 +1,39 @@
+package com.example.videoservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Raw analytics document of a video, kept out of the videos row so listing and status queries stay small.
+ * Written by the callback writer through JDBC; {@code payloadText} only holds documents the codec could not parse.
+ */
+@Entity
+@Table(name = "video_analytics_payloads")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoAnalyticsPayload {
+
+    @Id
+    @Column(name = "video_id")
+    private Long videoId;
+
+    @ToString.Exclude
+    @Column(name = "payload_blob")
+    private byte[] payloadBlob;
+
+    @Column(name = "payload_text", columnDefinition = "TEXT")
+    private String payloadText;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public boolean hasBlob() {
+        return payloadBlob != null;
+    }
+}
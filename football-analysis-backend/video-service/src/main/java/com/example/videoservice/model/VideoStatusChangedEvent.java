@@ -0,0 +1,23 @@
+package com.example.videoservice.model;
+
+/**
+ * Published after a status UPDATE has committed. {@code version} is the row's status_version after the
+ * update, so listeners can order and de-duplicate events per video.
+ */
+public record VideoStatusChangedEvent(Long videoId,
+                                      long version,
+                                      ProcessingStatus status,
+                                      int progress,
+                                      String currentTask,
+                                      String outputKey,
+                                      String error) {
+
+    public static VideoStatusChangedEvent of(StatusUpdate update, long version) {
+        return new VideoStatusChangedEvent(update.videoId(), version, update.status(), update.progress(),
+                update.currentTask(), update.outputKey(), update.error());
+    }
+
+    public boolean isTerminal() {
+        return status.isTerminal();
+    }
+}
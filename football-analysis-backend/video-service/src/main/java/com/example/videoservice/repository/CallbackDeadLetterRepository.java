@@ -0,0 +1,28 @@
+package com.example.videoservice.repository;
+
+import com.example.videoservice.model.StatusUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Callbacks that failed to apply on their own, with the journal record they came from so they can be replayed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CallbackDeadLetterRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO callback_dead_letters (video_id, status, progress, journal_position, record, error, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void save(StatusUpdate update, byte[] record, long journalPosition, String error) {
+        jdbcTemplate.update(INSERT_SQL, update.videoId(), update.status().name(), update.progress(),
+                journalPosition, record, error, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
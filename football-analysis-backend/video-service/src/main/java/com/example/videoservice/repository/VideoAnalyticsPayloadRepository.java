@@ -0,0 +1,9 @@
+package com.example.videoservice.repository;
+
+import com.example.videoservice.model.VideoAnalyticsPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VideoAnalyticsPayloadRepository extends JpaRepository<VideoAnalyticsPayload, Long> {
+}
@@ -1,21 +1,22 @@
 package com.example.videoservice.repository;
 
-import com.example.videoservice.model.Video;
 import com.example.videoservice.model.VideoAnalytics;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
+// video_analytics is only written through JPA, so Hibernate's update timestamps keep cached queries coherent
 @Repository
 public interface VideoAnalyticsRepository extends JpaRepository<VideoAnalytics, Long> {
 
-    List<VideoAnalytics> findByVideoOrderByCreatedAtDesc(Video video);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<VideoAnalytics> findByVideoId(Long videoId);
 
-    Optional<VideoAnalytics> findByVideoAndAnalysisType(Video video, VideoAnalytics.AnalysisType analysisType);
-
-    List<VideoAnalytics> findByVideoAndAnalysisTypeIn(Video video, List<VideoAnalytics.AnalysisType> analysisTypes);
-
-    boolean existsByVideoAndAnalysisType(Video video, VideoAnalytics.AnalysisType analysisType);
+    // Write path of AnalyticsMaterializer, deliberately not cached
+    List<VideoAnalytics> findByVideoIdIn(Collection<Long> videoIds);
 }
\ No newline at end of file
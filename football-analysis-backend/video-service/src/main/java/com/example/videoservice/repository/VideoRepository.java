@@ -1,19 +1,84 @@
 package com.example.videoservice.repository;
 
+import com.example.videoservice.dto.DispatchTarget;
+import com.example.videoservice.dto.VideoListItem;
+import com.example.videoservice.dto.VideoStatusSummary;
+import com.example.videoservice.dto.VideoStatusView;
+import com.example.videoservice.model.ProcessingStatus;
 import com.example.videoservice.model.Video;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VideoRepository extends JpaRepository<Video, Long> {
 
-    Page<Video> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
+    String LIST_ITEM_SELECT = "SELECT new com.example.videoservice.dto.VideoListItem(v.id, v.userId, v.title, " +
+            "v.fileSize, v.contentType, v.durationSeconds, v.processingStatus, v.processingProgress, v.processingError, " +
+            "v.aiAnalysisCompleted, v.processedFileKey, v.statusVersion, v.createdAt, v.updatedAt) FROM Video v ";
 
-    Optional<Video> findByIdAndUserId(Long id, String userId);
+    // Keyset pages over idx_videos_user_created_id; pass Pageable.ofSize(n) as the limit, never an offset
+    @Query(LIST_ITEM_SELECT + "WHERE v.userId = :userId ORDER BY v.createdAt DESC, v.id DESC")
+    List<VideoListItem> findFirstListItems(@Param("userId") String userId, Pageable limit);
+
+    @Query(LIST_ITEM_SELECT + "WHERE v.userId = :userId AND (v.createdAt, v.id) < (:createdAt, :id) " +
+            "ORDER BY v.createdAt DESC, v.id DESC")
+    List<VideoListItem> findListItemsAfter(@Param("userId") String userId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable limit);
+
+    long countByUserId(String userId);
+
+    /**
+     * Ownership check through {@link #findById}, so repeated loads in a request are served by the
+     * persistence context and later requests by the second-level cache instead of a query.
+     */
+    default Optional<Video> findByIdAndUserId(Long id, String userId) {
+        return findById(id).filter(video -> video.getUserId().equals(userId));
+    }
+
+    @Query("SELECT new com.example.videoservice.dto.VideoStatusView(v.id, v.statusVersion, v.processingStatus, " +
+            "v.processingProgress, v.processingJobId, v.currentTask, v.processedFileKey, v.processingError, v.updatedAt) " +
+            "FROM Video v WHERE v.id = :id AND v.userId = :userId")
+    Optional<VideoStatusView> findStatusViewByIdAndUserId(@Param("id") Long id, @Param("userId") String userId);
+
+    @Query("SELECT new com.example.videoservice.dto.VideoStatusView(v.id, v.statusVersion, v.processingStatus, " +
+            "v.processingProgress, v.processingJobId, v.currentTask, v.processedFileKey, v.processingError, v.updatedAt) " +
+            "FROM Video v WHERE v.id IN :ids AND v.userId = :userId")
+    List<VideoStatusView> findStatusViewsByIdInAndUserId(@Param("ids") Collection<Long> ids,
+                                                         @Param("userId") String userId);
+
+    List<Video> findByIdInAndUserId(Collection<Long> ids, String userId);
+
+    @Query("SELECT new com.example.videoservice.dto.VideoStatusSummary(v.id, v.statusVersion, v.processingStatus, " +
+            "v.processingProgress, v.currentTask, v.processingError) " +
+            "FROM Video v WHERE v.id IN :ids AND v.userId = :userId")
+    List<VideoStatusSummary> findStatusesByIdInAndUserId(@Param("ids") Collection<Long> ids,
+                                                         @Param("userId") String userId);
+
+    // Enum literals rather than parameters, so the planner can match the predicate of idx_videos_active_by_user
+    @Query("SELECT new com.example.videoservice.dto.VideoStatusSummary(v.id, v.statusVersion, v.processingStatus, " +
+            "v.processingProgress, v.currentTask, v.processingError) FROM Video v WHERE v.userId = :userId " +
+            "AND v.processingStatus IN (com.example.videoservice.model.ProcessingStatus.QUEUED, " +
+            "com.example.videoservice.model.ProcessingStatus.PROCESSING) ORDER BY v.id")
+    List<VideoStatusSummary> findActiveStatusesByUserId(@Param("userId") String userId);
+
+    // Served by the partial idx_videos_processing_job_id
+    @Query("SELECT v.id FROM Video v WHERE v.processingJobId = :jobId")
+    Optional<Long> findIdByProcessingJobId(@Param("jobId") String jobId);
+
+    @Query("SELECT new com.example.videoservice.dto.DispatchTarget(v.id, v.userId, v.originalFileKey) " +
+            "FROM Video v WHERE v.id IN :ids AND v.processingStatus = :status")
+    List<DispatchTarget> findDispatchTargets(@Param("ids") Collection<Long> ids,
+                                             @Param("status") ProcessingStatus status);
 
     void deleteByIdAndUserId(Long id, String userId);
-}
\ No newline at end of file
+}
@@ -0,0 +1,254 @@
+package com.example.videoservice.repository;
+
+import com.example.videoservice.model.ProcessingStateMachine;
+import com.example.videoservice.model.ProcessingStatus;
+import com.example.videoservice.model.StatusUpdate;
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import com.example.videoservice.util.AnalyticsCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Conditional status UPDATEs, executed without loading entities. The callback path runs as JDBC batches and
+ * gets the new status_version per update; zero means the update was stale or the video is gone. The
+ * set-based transitions of the processing requests return one event per row that actually changed.
+ * Analytics of applied updates are written to video_analytics_payloads, never to the videos row.
+ * Hibernate does not see these writes; callers evict the affected videos from its second-level cache.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VideoStatusJdbcRepository {
+
+    private static final String[] RETURNED_COLUMNS = {"status_version"};
+
+    private static final String ADVANCE_SQL =
+            "UPDATE videos SET processing_status = ?, processing_progress = ?, current_task = ?, " +
+            "processed_file_key = COALESCE(?, processed_file_key), " +
+            "status_version = status_version + 1, updated_at = ? " +
+            "WHERE id = ? AND processing_status = ANY (?) " +
+            "AND (processing_progress IS NULL OR processing_progress < ? " +
+            "OR (processing_progress = ? AND processing_status <> ?))";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE videos SET processing_status = 'COMPLETED', processing_progress = 100, current_task = ?, " +
+            "processing_error = NULL, processed_file_key = COALESCE(?, processed_file_key), ai_analysis_completed = TRUE, " +
+            "processing_completed_at = ?, completed_at = ?, status_version = status_version + 1, updated_at = ? " +
+            "WHERE id = ? AND processing_status = ANY (?)";
+
+    private static final String FAIL_SQL =
+            "UPDATE videos SET processing_status = 'FAILED', current_task = ?, processing_error = ?, " +
+            "status_version = status_version + 1, updated_at = ? " +
+            "WHERE id = ? AND processing_status = ANY (?)";
+
+    private static final String RETURNING_STATUS =
+            " RETURNING id, status_version, processing_progress, current_task, processed_file_key, processing_error";
+
+    private static final String QUEUE_ALL_SQL =
+            "UPDATE videos SET processing_status = 'QUEUED', processing_progress = 0, current_task = NULL, " +
+            "processing_error = NULL, status_version = status_version + 1, updated_at = ? " +
+            "WHERE id = ANY (?) AND processing_status = ANY (?)" + RETURNING_STATUS;
+
+    private static final String START_ALL_SQL =
+            "UPDATE videos SET processing_status = 'PROCESSING', processing_progress = 0, current_task = NULL, " +
+            "processing_error = NULL, processing_started_at = ?, status_version = status_version + 1, updated_at = ? " +
+            "WHERE id = ANY (?) AND processing_status = ANY (?)" + RETURNING_STATUS;
+
+    private static final String FAIL_ALL_SQL =
+            "UPDATE videos SET processing_status = 'FAILED', processing_error = ?, " +
+            "status_version = status_version + 1, updated_at = ? " +
+            "WHERE id = ANY (?) AND processing_status = ANY (?)" + RETURNING_STATUS;
+
+    private static final String UPDATE_JOB_ID_SQL =
+            "UPDATE videos SET processing_job_id = ?, updated_at = ? WHERE id = ?";
+
+    // A newer document replaces the stored one; the migration inserts with DO NOTHING instead
+    private static final String UPSERT_PAYLOAD_SQL =
+            "INSERT INTO video_analytics_payloads (video_id, payload_blob, payload_text, updated_at) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (video_id) DO UPDATE SET " +
+            "payload_blob = EXCLUDED.payload_blob, payload_text = EXCLUDED.payload_text, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long[] advance(List<StatusUpdate> updates) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] versions = executeReturningVersions(ADVANCE_SQL, updates, (ps, update) -> {
+            ps.setString(1, update.status().name());
+            ps.setInt(2, update.progress());
+            ps.setString(3, update.currentTask());
+            setNullableString(ps, 4, update.outputKey());
+            ps.setTimestamp(5, now);
+            ps.setLong(6, update.videoId());
+            ps.setArray(7, sourcesOf(ps, update.status()));
+            ps.setInt(8, update.progress());
+            ps.setInt(9, update.progress());
+            ps.setString(10, update.status().name());
+        });
+        savePayloads(updates, versions, now);
+        return versions;
+    }
+
+    public long[] complete(List<StatusUpdate> updates) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] versions = executeReturningVersions(COMPLETE_SQL, updates, (ps, update) -> {
+            ps.setString(1, update.currentTask());
+            setNullableString(ps, 2, update.outputKey());
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+            ps.setLong(6, update.videoId());
+            ps.setArray(7, sourcesOf(ps, ProcessingStatus.COMPLETED));
+        });
+        savePayloads(updates, versions, now);
+        return versions;
+    }
+
+    public long[] fail(List<StatusUpdate> updates) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return executeReturningVersions(FAIL_SQL, updates, (ps, update) -> {
+            ps.setString(1, update.currentTask());
+            ps.setString(2, update.error() != null ? update.error() : "Unknown error");
+            ps.setTimestamp(3, now);
+            ps.setLong(4, update.videoId());
+            ps.setArray(5, sourcesOf(ps, ProcessingStatus.FAILED));
+        });
+    }
+
+    /**
+     * Queues the videos that are currently in one of {@code from}.
+     */
+    public List<VideoStatusChangedEvent> queueAll(Collection<Long> videoIds, Collection<ProcessingStatus> from) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return updateAll(QUEUE_ALL_SQL, ProcessingStatus.QUEUED, videoIds, from, now);
+    }
+
+    /**
+     * Moves the videos that are currently in one of {@code from} to PROCESSING with zero progress.
+     */
+    public List<VideoStatusChangedEvent> startAll(Collection<Long> videoIds, Collection<ProcessingStatus> from) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return updateAll(START_ALL_SQL, ProcessingStatus.PROCESSING, videoIds, from, now, now);
+    }
+
+    /**
+     * Fails the videos that may still fail; a video a callback already completed keeps its result.
+     */
+    public List<VideoStatusChangedEvent> failAll(Collection<Long> videoIds, String error) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return updateAll(FAIL_ALL_SQL, ProcessingStatus.FAILED, videoIds,
+                ProcessingStateMachine.sourcesOf(ProcessingStatus.FAILED), error, now);
+    }
+
+    /**
+     * Stores the AI service's job id without touching the status or its version. Returns false if the
+     * video is gone.
+     */
+    public boolean updateJobId(Long videoId, String jobId) {
+        return jdbcTemplate.update(UPDATE_JOB_ID_SQL, jobId, Timestamp.valueOf(LocalDateTime.now()), videoId) > 0;
+    }
+
+    private static java.sql.Array sourcesOf(PreparedStatement ps, ProcessingStatus target) throws SQLException {
+        Object[] sources = ProcessingStateMachine.sourcesOf(target).stream().map(Enum::name).toArray();
+        return ps.getConnection().createArrayOf("varchar", sources);
+    }
+
+    /**
+     * Writes the analytics of every update whose status UPDATE matched, in the caller's transaction.
+     * JSON goes to payload_blob, anything the codec rejects is kept as text so no payload is lost.
+     */
+    private void savePayloads(List<StatusUpdate> updates, long[] versions, Timestamp now) {
+        List<StatusUpdate> applied = new ArrayList<>();
+        for (int i = 0; i < versions.length; i++) {
+            if (versions[i] > 0 && updates.get(i).analytics() != null) {
+                applied.add(updates.get(i));
+            }
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_PAYLOAD_SQL, applied, applied.size(), (ps, update) -> {
+            byte[] blob = AnalyticsCodec.tryEncode(update.analytics());
+            ps.setLong(1, update.videoId());
+            if (blob != null) {
+                ps.setBytes(2, blob);
+                ps.setNull(3, Types.VARCHAR);
+            } else {
+                ps.setNull(2, Types.BINARY);
+                ps.setString(3, update.analytics());
+            }
+            ps.setTimestamp(4, now);
+        });
+    }
+
+    private List<VideoStatusChangedEvent> updateAll(String sql, ProcessingStatus status, Collection<Long> videoIds,
+                                                    Collection<ProcessingStatus> from, Object... leading) {
+        if (videoIds.isEmpty() || from.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            int index = 1;
+            for (Object value : leading) {
+                ps.setObject(index++, value);
+            }
+            ps.setArray(index++, connection.createArrayOf("bigint", videoIds.toArray()));
+            ps.setArray(index, connection.createArrayOf("varchar", from.stream().map(Enum::name).toArray()));
+            return ps;
+        }, (rs, rowNum) -> new VideoStatusChangedEvent(rs.getLong("id"), rs.getLong("status_version"), status,
+                rs.getInt("processing_progress"), rs.getString("current_task"), rs.getString("processed_file_key"),
+                rs.getString("processing_error")));
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    /**
+     * Runs the statement as one batch and returns the new status_version of each update, or 0 where the
+     * conditional UPDATE matched nothing. The driver appends RETURNING for the requested columns and hands
+     * the rows back in statement order, so each returned row belongs to the next update that matched.
+     */
+    private long[] executeReturningVersions(String sql, List<StatusUpdate> updates,
+                                            ParameterizedPreparedStatementSetter<StatusUpdate> setter) {
+        long[] versions = new long[updates.size()];
+        if (updates.isEmpty()) {
+            return versions;
+        }
+
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql, RETURNED_COLUMNS)) {
+                for (StatusUpdate update : updates) {
+                    setter.setValues(ps, update);
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] > 0 && keys.next()) {
+                            versions[i] = keys.getLong("status_version");
+                        }
+                    }
+                }
+            }
+            return versions;
+        });
+    }
+}
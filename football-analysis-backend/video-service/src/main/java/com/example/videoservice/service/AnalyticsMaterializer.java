@@ -0,0 +1,291 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.ProcessingStatus;
+import com.example.videoservice.model.VideoAnalytics;
+import com.example.videoservice.model.VideoAnalyticsPayload;
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import com.example.videoservice.repository.VideoAnalyticsPayloadRepository;
+import com.example.videoservice.repository.VideoAnalyticsRepository;
+import com.example.videoservice.repository.VideoRepository;
+import com.example.videoservice.util.AnalyticsCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns the analytics document of a completed video into typed video_analytics rows (TEAM_STATISTICS and
+ * SPEED_ANALYSIS), so the analytics endpoints read columns instead of decoding payloads. Completion events
+ * only enqueue the video id; a scheduled drain materializes up to {@code batch-size} videos per transaction,
+ * and the rows go out as JDBC batches on the pooled id sequence. Existing rows are updated in place, so
+ * replayed callbacks are harmless. Once the queue is empty, payloads that never got rows (e.g. completed
+ * before a restart) are backfilled in keyset order. A batch that fails for a non-transient reason is
+ * retried one video at a time, so a single bad payload is logged and skipped instead of blocking the rest.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsMaterializer {
+
+    private static final String SELECT_UNMATERIALIZED_SQL =
+            "SELECT p.video_id FROM video_analytics_payloads p WHERE p.video_id > ? " +
+            "AND NOT EXISTS (SELECT 1 FROM video_analytics a WHERE a.video_id = p.video_id) " +
+            "ORDER BY p.video_id LIMIT ?";
+
+    private final VideoRepository videoRepository;
+    private final VideoAnalyticsRepository videoAnalyticsRepository;
+    private final VideoAnalyticsPayloadRepository videoAnalyticsPayloadRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.analytics.materializer.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.analytics.materializer.backfill-enabled:true}")
+    private boolean backfillEnabled;
+
+    private long lastBackfillId;
+    private boolean backfillFinished;
+
+    // Runs on the callback writer thread, so it only records the id
+    @EventListener
+    public void onStatusChanged(VideoStatusChangedEvent event) {
+        if (event.status() == ProcessingStatus.COMPLETED) {
+            pending.add(event.videoId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.materializer.interval-ms:1000}")
+    public void drain() {
+        List<Long> videoIds = takePending();
+        if (videoIds.isEmpty()) {
+            backfillBatch();
+            return;
+        }
+
+        try {
+            int rows = materialize(videoIds);
+            log.info("📊 Materialized analytics of {} videos ({} rows)", videoIds.size(), rows);
+        } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+            pending.addAll(videoIds);
+            log.warn("⚠️ Database unavailable, retrying analytics of {} videos: {}", videoIds.size(), e.getMessage());
+        } catch (Exception e) {
+            log.warn("⚠️ Analytics batch of {} videos failed, materializing one at a time: {}",
+                    videoIds.size(), e.getMessage());
+            pending.addAll(materializeEach(videoIds));
+        }
+    }
+
+    /**
+     * Materializes the given videos in one transaction and returns the number of rows written. Videos
+     * without a parseable payload are skipped.
+     */
+    public int materialize(List<Long> videoIds) {
+        Integer written = transactionTemplate.execute(tx -> {
+            Map<Long, List<VideoAnalytics>> existing = new HashMap<>();
+            for (VideoAnalytics row : videoAnalyticsRepository.findByVideoIdIn(videoIds)) {
+                existing.computeIfAbsent(row.getVideo().getId(), id -> new ArrayList<>()).add(row);
+            }
+
+            List<VideoAnalytics> rows = new ArrayList<>();
+            List<VideoAnalytics> duplicates = new ArrayList<>();
+            for (VideoAnalyticsPayload payload : videoAnalyticsPayloadRepository.findAllById(videoIds)) {
+                Map<String, Object> analytics = readPayload(payload);
+                if (analytics == null) {
+                    continue;
+                }
+
+                List<VideoAnalytics> current = existing.getOrDefault(payload.getVideoId(), List.of());
+                VideoAnalytics teamStats = reuse(current, payload.getVideoId(),
+                        VideoAnalytics.AnalysisType.TEAM_STATISTICS, duplicates);
+                VideoAnalytics speedStats = reuse(current, payload.getVideoId(),
+                        VideoAnalytics.AnalysisType.SPEED_ANALYSIS, duplicates);
+
+                applyTeamStatistics(teamStats, analytics);
+                applySpeedAnalysis(speedStats, analytics);
+                rows.add(teamStats);
+                rows.add(speedStats);
+            }
+
+            videoAnalyticsRepository.deleteAll(duplicates);
+            videoAnalyticsRepository.saveAll(rows);
+            return rows.size();
+        });
+        return written != null ? written : 0;
+    }
+
+    private void backfillBatch() {
+        if (!backfillEnabled || backfillFinished) {
+            return;
+        }
+
+        List<Long> videoIds;
+        try {
+            videoIds = jdbcTemplate.queryForList(SELECT_UNMATERIALIZED_SQL, Long.class, lastBackfillId, batchSize);
+        } catch (Exception e) {
+            log.warn("⚠️ Analytics backfill after video {} failed, will retry: {}", lastBackfillId, e.getMessage());
+            return;
+        }
+        if (videoIds.isEmpty()) {
+            backfillFinished = true;
+            log.info("📊 Analytics backfill finished");
+            return;
+        }
+
+        try {
+            int rows = materialize(videoIds);
+            lastBackfillId = videoIds.get(videoIds.size() - 1);
+            log.info("📊 Backfilled analytics up to video {} ({} rows)", lastBackfillId, rows);
+        } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+            log.warn("⚠️ Database unavailable, retrying analytics backfill after video {}: {}",
+                    lastBackfillId, e.getMessage());
+        } catch (Exception e) {
+            log.warn("⚠️ Analytics backfill after video {} failed, materializing one at a time: {}",
+                    lastBackfillId, e.getMessage());
+            int done = videoIds.size() - materializeEach(videoIds).size();
+            if (done > 0) {
+                lastBackfillId = videoIds.get(done - 1);
+            }
+        }
+    }
+
+    /**
+     * Materializes each video in its own transaction. Videos that still fail are logged and skipped; when
+     * the database becomes unavailable, the ids not yet attempted are returned for a later retry.
+     */
+    private List<Long> materializeEach(List<Long> videoIds) {
+        for (int i = 0; i < videoIds.size(); i++) {
+            Long videoId = videoIds.get(i);
+            try {
+                materialize(List.of(videoId));
+            } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+                log.warn("⚠️ Database unavailable, retrying analytics of {} videos: {}",
+                        videoIds.size() - i, e.getMessage());
+                return videoIds.subList(i, videoIds.size());
+            } catch (Exception e) {
+                log.error("❌ Skipping analytics of video {}: {}", videoId, e.getMessage(), e);
+            }
+        }
+        return List.of();
+    }
+
+    private List<Long> takePending() {
+        List<Long> videoIds = new ArrayList<>(Math.min(pending.size(), batchSize));
+        Iterator<Long> iterator = pending.iterator();
+        while (iterator.hasNext() && videoIds.size() < batchSize) {
+            videoIds.add(iterator.next());
+            iterator.remove();
+        }
+        return videoIds;
+    }
+
+    /**
+     * The newest existing row of {@code type}, or a new one; older rows of the same type are collected
+     * into {@code duplicates}.
+     */
+    private VideoAnalytics reuse(List<VideoAnalytics> current, Long videoId, VideoAnalytics.AnalysisType type,
+                                 List<VideoAnalytics> duplicates) {
+        List<VideoAnalytics> ofType = current.stream()
+                .filter(row -> row.getAnalysisType() == type)
+                .sorted(Comparator.comparing(VideoAnalytics::getCreatedAt).reversed())
+                .toList();
+        if (!ofType.isEmpty()) {
+            duplicates.addAll(ofType.subList(1, ofType.size()));
+            return ofType.get(0);
+        }
+
+        VideoAnalytics row = new VideoAnalytics();
+        row.setVideo(videoRepository.getReferenceById(videoId));
+        row.setAnalysisType(type);
+        return row;
+    }
+
+    private static void applyTeamStatistics(VideoAnalytics row, Map<String, Object> analytics) {
+        Map<String, Object> teamStats = section(analytics, "team_stats");
+        Map<String, Object> matchSummary = section(analytics, "match_summary");
+
+        row.setTeam1PossessionPercentage(toDouble(teamStats.get("team_1_possession")));
+        row.setTeam2PossessionPercentage(toDouble(teamStats.get("team_2_possession")));
+        row.setTotalPasses(toInteger(teamStats.get("total_passes")));
+        row.setTeam1Passes(toInteger(teamStats.get("team_1_passes")));
+        row.setTeam2Passes(toInteger(teamStats.get("team_2_passes")));
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("pass_accuracy", toDouble(teamStats.get("pass_accuracy")));
+        data.put("ball_possession_changes", toInteger(matchSummary.get("ball_possession_changes")));
+        data.put("total_players_detected", toInteger(analytics.get("players_detected")));
+        data.put("ball_detected", analytics.get("ball_detected"));
+        data.put("total_frames", toInteger(analytics.get("total_frames")));
+        data.put("duration_seconds", toDouble(analytics.get("duration_seconds")));
+        row.setAnalysisData(data);
+    }
+
+    private static void applySpeedAnalysis(VideoAnalytics row, Map<String, Object> analytics) {
+        Map<String, Object> matchSummary = section(analytics, "match_summary");
+
+        row.setAvgPlayerSpeed(toDouble(matchSummary.get("average_speed")));
+        row.setMaxPlayerSpeed(toDouble(matchSummary.get("max_speed")));
+        row.setTotalDistanceCovered(toDouble(matchSummary.get("total_distance_covered")));
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("total_sprints", toInteger(matchSummary.get("total_sprints")));
+        row.setAnalysisData(data);
+    }
+
+    private static Map<String, Object> readPayload(VideoAnalyticsPayload payload) {
+        byte[] blob = payload.hasBlob() ? payload.getPayloadBlob() : AnalyticsCodec.tryEncode(payload.getPayloadText());
+        if (blob == null) {
+            log.warn("⚠️ Analytics of video {} are not parseable, nothing to materialize", payload.getVideoId());
+            return null;
+        }
+        try {
+            return AnalyticsCodec.readMap(blob);
+        } catch (IOException e) {
+            log.warn("⚠️ Failed to decode analytics of video {}: {}", payload.getVideoId(), e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> section(Map<String, Object> analytics, String name) {
+        return analytics.get(name) instanceof Map<?, ?> section ? (Map<String, Object>) section : Map.of();
+    }
+
+    // The AI service formats some ratios as text, e.g. pass_accuracy "81.4%"
+    private static Double toDouble(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            try {
+                return Double.valueOf(text.trim().replace("%", ""));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static Integer toInteger(Object value) {
+        Double number = toDouble(value);
+        return number != null ? (int) Math.round(number) : null;
+    }
+}
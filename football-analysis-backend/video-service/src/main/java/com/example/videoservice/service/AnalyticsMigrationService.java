@@ -0,0 +1,161 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.util.AnalyticsCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One pass per application start, in small keyset batches:
+ * <ol>
+ *   <li>moves analytics still stored on the videos row (analytics_blob, or legacy analytics_data TEXT) into
+ *   video_analytics_payloads, encoding text on the way. Each batch copies and clears in one short
+ *   transaction; an existing payload row was written by a newer callback and is kept.</li>
+ *   <li>rewrites payload rows still held as text (Python repr literals) into the blob format, so reads no
+ *   longer go through {@code PythonLiteralParser}. A row is only replaced if its text is unchanged.</li>
+ * </ol>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsMigrationService {
+
+    private static final String SELECT_SQL =
+            "SELECT id, analytics_blob, analytics_data FROM videos " +
+            "WHERE id > ? AND (analytics_blob IS NOT NULL OR analytics_data IS NOT NULL) ORDER BY id LIMIT ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO video_analytics_payloads (video_id, payload_blob, payload_text, updated_at) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (video_id) DO NOTHING";
+
+    private static final String CLEAR_SQL =
+            "UPDATE videos SET analytics_blob = NULL, analytics_data = NULL WHERE id = ?";
+
+    private static final String SELECT_TEXT_SQL =
+            "SELECT video_id, payload_text FROM video_analytics_payloads " +
+            "WHERE video_id > ? AND payload_blob IS NULL AND payload_text IS NOT NULL ORDER BY video_id LIMIT ?";
+
+    private static final String REWRITE_TEXT_SQL =
+            "UPDATE video_analytics_payloads SET payload_blob = ?, payload_text = NULL " +
+            "WHERE video_id = ? AND payload_blob IS NULL AND payload_text = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.analytics.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.analytics.migration.batch-size:200}")
+    private int batchSize;
+
+    private long lastId;
+    private boolean rowsMoved;
+    private long lastTextId;
+    private boolean finished;
+    private long migrated;
+    private long rewritten;
+    private long keptAsText;
+    private long textBytes;
+    private long blobBytes;
+
+    @Scheduled(initialDelayString = "${app.analytics.migration.interval-ms:5000}",
+            fixedDelayString = "${app.analytics.migration.interval-ms:5000}")
+    public void migrateBatch() {
+        if (!enabled || finished) {
+            return;
+        }
+        if (rowsMoved) {
+            rewriteTextBatch();
+            return;
+        }
+
+        try {
+            List<LegacyRow> rows = jdbcTemplate.query(SELECT_SQL,
+                    (rs, i) -> new LegacyRow(rs.getLong("id"), rs.getBytes("analytics_blob"), rs.getString("analytics_data")),
+                    lastId, batchSize);
+
+            if (rows.isEmpty()) {
+                rowsMoved = true;
+                log.info("📦 Analytics moved off videos: {} rows ({} kept as text), {} text bytes -> {} blob bytes",
+                        migrated, keptAsText, textBytes, blobBytes);
+                return;
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> inserts = new ArrayList<>(rows.size());
+            List<Object[]> clears = new ArrayList<>(rows.size());
+            for (LegacyRow row : rows) {
+                byte[] blob = row.blob() != null ? row.blob() : AnalyticsCodec.tryEncode(row.text());
+                String text = blob == null ? row.text() : null;
+                if (blob == null) {
+                    keptAsText++;
+                } else if (row.blob() == null) {
+                    textBytes += row.text().length();
+                    blobBytes += blob.length;
+                }
+                inserts.add(new Object[]{row.id(), blob, text, now});
+                clears.add(new Object[]{row.id()});
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+                jdbcTemplate.batchUpdate(CLEAR_SQL, clears);
+            });
+
+            migrated += rows.size();
+            lastId = rows.get(rows.size() - 1).id();
+            log.info("📦 Moved analytics up to video {} ({} rows so far)", lastId, migrated);
+
+        } catch (Exception e) {
+            log.warn("⚠️ Analytics migration batch after video {} failed, will retry: {}", lastId, e.getMessage());
+        }
+    }
+
+    private void rewriteTextBatch() {
+        try {
+            List<LegacyRow> rows = jdbcTemplate.query(SELECT_TEXT_SQL,
+                    (rs, i) -> new LegacyRow(rs.getLong("video_id"), null, rs.getString("payload_text")),
+                    lastTextId, batchSize);
+
+            if (rows.isEmpty()) {
+                finished = true;
+                log.info("📦 Analytics migration finished: {} text payloads rewritten", rewritten);
+                return;
+            }
+
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (LegacyRow row : rows) {
+                byte[] blob = AnalyticsCodec.tryEncode(row.text());
+                if (blob == null) {
+                    log.warn("⚠️ Analytics of video {} are neither JSON nor a Python literal, keeping text", row.id());
+                    continue;
+                }
+                updates.add(new Object[]{blob, row.id(), row.text()});
+            }
+
+            if (!updates.isEmpty()) {
+                for (int count : jdbcTemplate.batchUpdate(REWRITE_TEXT_SQL, updates)) {
+                    rewritten += Math.max(count, 0);
+                }
+            }
+
+            lastTextId = rows.get(rows.size() - 1).id();
+            log.info("📦 Rewrote text analytics up to video {} ({} rows so far)", lastTextId, rewritten);
+
+        } catch (Exception e) {
+            log.warn("⚠️ Analytics rewrite batch after video {} failed, will retry: {}", lastTextId, e.getMessage());
+        }
+    }
+
+    private record LegacyRow(long id, byte[] blob, String text) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.dto.ai.AICallbackRequest;
+import com.example.videoservice.model.ProcessingStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of callbacks that were already applied, keyed by (job_id, status, progress).
+ * Retried callbacks that hit the cache are acknowledged without touching the database.
+ */
+@Component
+public class CallbackDeduplicator {
+
+    private final Map<CallbackKey, Boolean> applied;
+
+    public CallbackDeduplicator(@Value("${app.callback.dedup-cache-size:10000}") int maxEntries) {
+        this.applied = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CallbackKey, Boolean> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public CallbackKey keyOf(AICallbackRequest callback, ProcessingStatus status) {
+        String job = callback.getJobId() != null ? callback.getJobId() : "video:" + callback.getVideoId();
+        return new CallbackKey(job, status, callback.getProgressSafe());
+    }
+
+    public synchronized boolean isDuplicate(CallbackKey key) {
+        return applied.get(key) != null;
+    }
+
+    public synchronized void remember(CallbackKey key) {
+        applied.put(key, Boolean.TRUE);
+    }
+
+    public record CallbackKey(String jobId, ProcessingStatus status, int progress) {
+    }
+}
@@ -0,0 +1,410 @@
+package com.example.videoservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of accepted callbacks, stored in fixed-size memory-mapped segment files.
+ * Positions are global ({@code segment * segmentSize + offset}). Appenders wait for a background
+ * flusher that forces the active segment once for everything appended since the previous force
+ * (group commit). The checkpoint records how far the writer has applied the journal to the database.
+ */
+@Component
+@Slf4j
+public class CallbackJournal {
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final long checkpointIntervalNanos;
+
+    private final Object appendLock = new Object();
+    private final Object durableMonitor = new Object();
+
+    private MappedByteBuffer activeBuffer;
+    private long activeSegment;
+    private long oldestSegment;
+    private volatile long appendPosition;
+    private volatile long durablePosition;
+
+    private volatile long checkpointPosition;
+    private long lastCheckpointWriteNanos;
+
+    private volatile boolean running;
+    private Thread flusherThread;
+
+    public CallbackJournal(@Value("${app.callback.journal.dir:./data/callback-journal}") String directory,
+                           @Value("${app.callback.journal.segment-size-mb:64}") int segmentSizeMb,
+                           @Value("${app.callback.journal.max-segments:32}") int maxSegments,
+                           @Value("${app.callback.journal.checkpoint-interval-ms:200}") long checkpointIntervalMs) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.maxSegments = maxSegments;
+        this.checkpointIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkpointIntervalMs);
+    }
+
+    public synchronized void open() {
+        if (running) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            checkpointPosition = readCheckpoint();
+
+            List<Long> segments = listSegments();
+            if (segments.isEmpty()) {
+                activeSegment = checkpointPosition / segmentSize;
+                oldestSegment = activeSegment;
+                activeBuffer = mapSegment(activeSegment);
+                appendPosition = activeSegment * segmentSize;
+                checkpointPosition = appendPosition;
+            } else {
+                oldestSegment = segments.get(0);
+                activeSegment = segments.get(segments.size() - 1);
+                activeBuffer = mapSegment(activeSegment);
+                appendPosition = activeSegment * segmentSize + recoverTail(activeBuffer);
+            }
+
+            if (checkpointPosition < oldestSegment * segmentSize) {
+                checkpointPosition = oldestSegment * segmentSize;
+            }
+            durablePosition = appendPosition;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open callback journal in " + directory, e);
+        }
+
+        running = true;
+        flusherThread = new Thread(this::flushLoop, "callback-journal-flusher");
+        flusherThread.setDaemon(true);
+        flusherThread.start();
+
+        log.info("📒 Callback journal opened at {} (checkpoint {}, end {})", directory, checkpointPosition, appendPosition);
+    }
+
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(flusherThread);
+        try {
+            flusherThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (appendLock) {
+            activeBuffer.force();
+        }
+        writeCheckpoint(checkpointPosition);
+        log.info("📒 Callback journal closed (checkpoint {}, end {})", checkpointPosition, appendPosition);
+    }
+
+    /**
+     * Appends one record and returns the position just past it, or -1 if the journal is full.
+     */
+    public long append(byte[] payload) {
+        if (payload.length + HEADER_SIZE > segmentSize) {
+            throw new IllegalArgumentException("Callback of " + payload.length + " bytes exceeds journal segment size");
+        }
+
+        synchronized (appendLock) {
+            int offset = (int) (appendPosition - activeSegment * segmentSize);
+            if (offset + HEADER_SIZE + payload.length > segmentSize) {
+                if (activeSegment + 1 - oldestSegment >= maxSegments) {
+                    return -1;
+                }
+                rollSegment();
+                offset = 0;
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+
+            activeBuffer.putInt(offset + 4, (int) crc.getValue());
+            activeBuffer.put(offset + HEADER_SIZE, payload);
+            activeBuffer.putInt(offset, payload.length);
+
+            appendPosition = activeSegment * segmentSize + offset + HEADER_SIZE + payload.length;
+            return appendPosition;
+        }
+    }
+
+    /** Start of the record of {@code payloadLength} bytes that ends at {@code end}; records never span segments. */
+    public static long startOf(long end, int payloadLength) {
+        return end - HEADER_SIZE - payloadLength;
+    }
+
+    public void awaitDurable(long position) {
+        if (durablePosition >= position) {
+            return;
+        }
+
+        LockSupport.unpark(flusherThread);
+        synchronized (durableMonitor) {
+            while (durablePosition < position) {
+                if (!running) {
+                    throw new IllegalStateException("Callback journal is closed");
+                }
+                try {
+                    durableMonitor.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for journal flush", e);
+                }
+            }
+        }
+    }
+
+    public long endPosition() {
+        return appendPosition;
+    }
+
+    public long checkpointPosition() {
+        return checkpointPosition;
+    }
+
+    /**
+     * Reads records in order starting at {@code from}, handing each payload and its end position to the consumer.
+     * Returns the position after the last record read.
+     */
+    public long read(long from, int maxRecords, BiConsumer<Long, byte[]> consumer) {
+        long position = from;
+        long end = appendPosition;
+        int read = 0;
+
+        try {
+            while (position < end && read < maxRecords) {
+                long segment = position / segmentSize;
+                int offset = offsetOf(position);
+
+                try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                    while (read < maxRecords && offset + HEADER_SIZE <= segmentSize) {
+                        header.clear();
+                        channel.read(header, offset);
+                        header.flip();
+                        int length = header.getInt();
+                        int checksum = header.getInt();
+
+                        if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+                            break;
+                        }
+
+                        byte[] payload = new byte[length];
+                        channel.read(ByteBuffer.wrap(payload), offset + HEADER_SIZE);
+
+                        CRC32C crc = new CRC32C();
+                        crc.update(payload);
+                        if ((int) crc.getValue() != checksum) {
+                            log.error("❌ Corrupt journal record at {}, skipping rest of segment {}", position, segment);
+                            break;
+                        }
+
+                        offset += HEADER_SIZE + length;
+                        position = segment * segmentSize + offset;
+                        consumer.accept(position, payload);
+                        read++;
+
+                        if (position >= end) {
+                            return position;
+                        }
+                    }
+                }
+
+                if (read < maxRecords && position < end) {
+                    position = (segment + 1) * segmentSize;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read callback journal at " + position, e);
+        }
+
+        return position;
+    }
+
+    /**
+     * Records that everything before {@code position} is in the database. Written to disk at most once per interval.
+     */
+    public void checkpoint(long position, boolean force) {
+        if (position <= checkpointPosition && !force) {
+            return;
+        }
+
+        checkpointPosition = Math.max(checkpointPosition, position);
+        long now = System.nanoTime();
+        if (!force && now - lastCheckpointWriteNanos < checkpointIntervalNanos) {
+            return;
+        }
+
+        lastCheckpointWriteNanos = now;
+        writeCheckpoint(checkpointPosition);
+        deleteAppliedSegments(checkpointPosition / segmentSize);
+    }
+
+    private void flushLoop() {
+        while (running) {
+            long target = appendPosition;
+            if (target > durablePosition) {
+                MappedByteBuffer buffer;
+                synchronized (appendLock) {
+                    buffer = activeBuffer;
+                }
+                buffer.force();
+
+                synchronized (durableMonitor) {
+                    durablePosition = target;
+                    durableMonitor.notifyAll();
+                }
+            } else {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private void rollSegment() {
+        activeBuffer.force();
+        try {
+            activeSegment++;
+            activeBuffer = mapSegment(activeSegment);
+        } catch (IOException e) {
+            activeSegment--;
+            throw new UncheckedIOException("Failed to create journal segment", e);
+        }
+        appendPosition = activeSegment * segmentSize;
+        log.info("📒 Rolled callback journal to segment {}", activeSegment);
+    }
+
+    private void deleteAppliedSegments(long firstNeededSegment) {
+        synchronized (appendLock) {
+            while (oldestSegment < firstNeededSegment && oldestSegment < activeSegment) {
+                try {
+                    Files.deleteIfExists(segmentPath(oldestSegment));
+                } catch (IOException e) {
+                    log.warn("⚠️ Failed to delete journal segment {}: {}", oldestSegment, e.getMessage());
+                    return;
+                }
+                oldestSegment++;
+            }
+        }
+    }
+
+    private int recoverTail(MappedByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER_SIZE <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_SIZE, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                log.warn("⚠️ Truncating torn journal record at offset {}", offset);
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+
+        for (int i = offset; i < Math.min(segmentSize, offset + HEADER_SIZE); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+        return offset;
+    }
+
+    private MappedByteBuffer mapSegment(long segment) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segmentPath(segment).toFile(), "rw")) {
+            if (file.length() < segmentSize) {
+                file.setLength(segmentSize);
+            }
+            return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < 16) {
+            return 0;
+        }
+
+        long position = buffer.getLong();
+        long inverted = buffer.getLong();
+        return position == ~inverted ? position : 0;
+    }
+
+    private synchronized void writeCheckpoint(long position) {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(16).putLong(position).putLong(~position);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(buffer);
+            channel.force(true);
+        } catch (IOException e) {
+            log.error("❌ Failed to write journal checkpoint: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("❌ Failed to publish journal checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private int offsetOf(long position) {
+        return (int) (position % segmentSize);
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.ProcessingStatus;
+import com.example.videoservice.model.StatusUpdate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of a journaled callback. The leading version byte allows the format to change
+ * while older segments are still waiting to be replayed.
+ */
+final class CallbackJournalCodec {
+
+    private static final byte VERSION = 1;
+
+    private CallbackJournalCodec() {
+    }
+
+    static byte[] encode(StatusUpdate update, CallbackDeduplicator.CallbackKey key) {
+        int analyticsLength = update.analytics() != null ? update.analytics().length() : 0;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + analyticsLength);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(update.videoId());
+            out.writeUTF(update.status().name());
+            out.writeInt(update.progress());
+            writeString(out, update.currentTask());
+            writeString(out, update.outputKey());
+            writeString(out, update.analytics());
+            writeString(out, update.error());
+            writeString(out, key.jobId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    static CallbackWriter.PendingCallback decode(byte[] payload, long journalStart, long journalPosition) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported journal record version " + version);
+            }
+
+            Long videoId = in.readLong();
+            ProcessingStatus status = ProcessingStatus.valueOf(in.readUTF());
+            int progress = in.readInt();
+            String currentTask = readString(in);
+            String outputKey = readString(in);
+            String analytics = readString(in);
+            String error = readString(in);
+            String jobId = readString(in);
+
+            StatusUpdate update = new StatusUpdate(videoId, status, progress, currentTask, outputKey,
+                    analytics, error, System.nanoTime());
+            return new CallbackWriter.PendingCallback(update,
+                    new CallbackDeduplicator.CallbackKey(jobId, status, progress), journalStart, journalPosition);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
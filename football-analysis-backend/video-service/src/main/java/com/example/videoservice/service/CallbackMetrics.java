@@ -0,0 +1,89 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.StatusUpdate;
+import com.example.videoservice.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class CallbackMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter staleProgress;
+    private final Counter staleTerminal;
+    private final Counter duplicates;
+    private final Counter rejected;
+    private final Counter deadLettered;
+    private final Timer applyLatency;
+
+    public CallbackMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.staleProgress = Counter.builder("video.callbacks.stale")
+                .description("Callbacks dropped because a newer or terminal state was already applied")
+                .tag("kind", "progress")
+                .register(meterRegistry);
+        this.staleTerminal = Counter.builder("video.callbacks.stale")
+                .description("Callbacks dropped because a newer or terminal state was already applied")
+                .tag("kind", "terminal")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("video.callbacks.duplicate")
+                .description("Retried callbacks acknowledged from the dedup cache")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("video.callbacks.rejected")
+                .description("Callbacks rejected with 429 because the ingest queue was full")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("video.callbacks.dead.lettered")
+                .description("Callbacks that failed to apply on their own and were moved to callback_dead_letters")
+                .register(meterRegistry);
+        this.applyLatency = Timer.builder("video.callbacks.apply.latency")
+                .description("Time from accepting a callback to its update reaching the database")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public void bindQueue(MpscRingBuffer<?> queue) {
+        Gauge.builder("video.callbacks.queue.depth", queue, MpscRingBuffer::size)
+                .description("Callbacks accepted but not yet applied")
+                .register(meterRegistry);
+        Gauge.builder("video.callbacks.queue.capacity", queue, MpscRingBuffer::capacity)
+                .register(meterRegistry);
+    }
+
+    public void bindJournal(CallbackJournal journal) {
+        Gauge.builder("video.callbacks.journal.backlog.bytes", journal,
+                        j -> j.endPosition() - j.checkpointPosition())
+                .description("Journaled callback bytes not yet applied to the database")
+                .register(meterRegistry);
+    }
+
+    public void staleProgress(int count) {
+        if (count > 0) {
+            staleProgress.increment(count);
+        }
+    }
+
+    public void staleTerminal() {
+        staleTerminal.increment();
+    }
+
+    public void duplicate() {
+        duplicates.increment();
+    }
+
+    public void rejected() {
+        rejected.increment();
+    }
+
+    public void deadLettered() {
+        deadLettered.increment();
+    }
+
+    public void applied(StatusUpdate update) {
+        applyLatency.record(System.nanoTime() - update.receivedNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.StatusUpdate;
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import com.example.videoservice.repository.CallbackDeadLetterRepository;
+import com.example.videoservice.repository.VideoStatusJdbcRepository;
+import com.example.videoservice.util.MpscRingBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single writer for accepted callbacks. Request threads append each callback to the {@link CallbackJournal}
+ * under a short lock, then offer it to a lock-free ring buffer outside of it, so buffer order may differ from
+ * journal order. This thread drains the buffer, writes terminal and payload updates as JDBC batches in one
+ * transaction, hands progress-only updates to the {@link ProgressCoalescer} and advances the journal
+ * checkpoint, never past the oldest journaled record it has not applied yet. When the buffer overflows, or
+ * after a restart, it catches up by reading the journal instead; re-applying a record is harmless because
+ * every UPDATE is conditional. A batch that fails for a non-transient reason is re-applied one record at a
+ * time, and only a record that still fails is moved to the dead-letter table.
+ */
+@Component
+@Slf4j
+public class CallbackWriter implements SmartLifecycle {
+
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final MpscRingBuffer<PendingCallback> queue;
+    private final CallbackJournal callbackJournal;
+    private final VideoStatusJdbcRepository videoStatusJdbcRepository;
+    private final CallbackDeadLetterRepository callbackDeadLetterRepository;
+    private final ProgressCoalescer progressCoalescer;
+    private final CallbackDeduplicator callbackDeduplicator;
+    private final CallbackMetrics callbackMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final long idleParkNanos;
+
+    private final Object submitLock = new Object();
+    private volatile boolean catchingUp;
+    private volatile long catchUpFrom;
+
+    // Start positions of journaled records not applied yet; added under submitLock, removed by the writer only
+    private final ConcurrentSkipListSet<Long> unapplied = new ConcurrentSkipListSet<>();
+    private long appliedEnd;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public CallbackWriter(CallbackJournal callbackJournal,
+                          VideoStatusJdbcRepository videoStatusJdbcRepository,
+                          CallbackDeadLetterRepository callbackDeadLetterRepository,
+                          ProgressCoalescer progressCoalescer,
+                          CallbackDeduplicator callbackDeduplicator,
+                          CallbackMetrics callbackMetrics,
+                          TransactionTemplate transactionTemplate,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${app.callback.queue-capacity:8192}") int queueCapacity,
+                          @Value("${app.callback.writer-batch-size:256}") int batchSize,
+                          @Value("${app.callback.writer-idle-park-ms:5}") long idleParkMs) {
+        this.queue = new MpscRingBuffer<>(queueCapacity);
+        this.callbackJournal = callbackJournal;
+        this.videoStatusJdbcRepository = videoStatusJdbcRepository;
+        this.callbackDeadLetterRepository = callbackDeadLetterRepository;
+        this.progressCoalescer = progressCoalescer;
+        this.callbackDeduplicator = callbackDeduplicator;
+        this.callbackMetrics = callbackMetrics;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.idleParkNanos = TimeUnit.MILLISECONDS.toNanos(idleParkMs);
+        callbackMetrics.bindQueue(queue);
+        callbackMetrics.bindJournal(callbackJournal);
+    }
+
+    /**
+     * Journals the update and hands it to the writer. Returns once the record is durable on disk,
+     * or false if the journal is full.
+     */
+    public boolean submit(StatusUpdate update, CallbackDeduplicator.CallbackKey key) {
+        byte[] record = CallbackJournalCodec.encode(update, key);
+        long start;
+        long position;
+
+        // Only the append is serialized, so the checkpoint can never overtake a record that is not tracked yet
+        synchronized (submitLock) {
+            position = callbackJournal.append(record);
+            if (position < 0) {
+                return false;
+            }
+            start = CallbackJournal.startOf(position, record.length);
+            unapplied.add(start);
+        }
+
+        PendingCallback callback = new PendingCallback(update, key, start, position);
+        if (catchingUp || !queue.offer(callback)) {
+            spill(callback);
+        }
+
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+
+        callbackJournal.awaitDurable(position);
+        return true;
+    }
+
+    /**
+     * Slow path when the buffer is full or the writer is reading the journal: the record is left to catch-up,
+     * which must start no later than the record itself.
+     */
+    private void spill(PendingCallback callback) {
+        synchronized (submitLock) {
+            if (catchingUp) {
+                catchUpFrom = Math.min(catchUpFrom, callback.journalStart());
+            } else if (!queue.offer(callback)) {
+                catchUpFrom = callback.journalStart();
+                catchingUp = true;
+                log.warn("⚠️ Callback queue full, spilling to journal from position {}", callback.journalStart());
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        callbackJournal.open();
+        appliedEnd = callbackJournal.checkpointPosition();
+        if (callbackJournal.checkpointPosition() < callbackJournal.endPosition()) {
+            catchUpFrom = callbackJournal.checkpointPosition();
+            catchingUp = true;
+            log.info("📒 Replaying callback journal from {} to {}", catchUpFrom, callbackJournal.endPosition());
+        }
+
+        running = true;
+        writerThread = new Thread(this::runLoop, "callback-writer");
+        writerThread.start();
+        log.info("✅ Callback writer started (queue capacity {})", queue.capacity());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+        callbackJournal.close();
+        log.info("🛑 Callback writer stopped ({} callbacks left in queue)", queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runLoop() {
+        List<PendingCallback> batch = new ArrayList<>(batchSize);
+
+        while (running || queue.size() > 0) {
+            int drained = queue.drain(batch::add, batchSize);
+
+            if (drained > 0) {
+                if (!applyWithRetry(batch)) {
+                    break;
+                }
+                advanceCheckpoint(batch);
+                batch.clear();
+            } else if (catchingUp && running && !catchUp(batch)) {
+                break;
+            }
+
+            progressCoalescer.flushIfDue();
+
+            if (drained == 0 && !catchingUp && running) {
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+
+        progressCoalescer.flush();
+    }
+
+    private boolean catchUp(List<PendingCallback> batch) {
+        long from = catchUpFrom;
+        long next = callbackJournal.read(from, batchSize, (position, payload) -> batch.add(
+                CallbackJournalCodec.decode(payload, CallbackJournal.startOf(position, payload.length), position)));
+
+        if (!batch.isEmpty()) {
+            if (!applyWithRetry(batch)) {
+                return false;
+            }
+            advanceCheckpoint(batch);
+            batch.clear();
+        }
+
+        synchronized (submitLock) {
+            // A producer that spilled a record older than this read lowered catchUpFrom; keep it
+            catchUpFrom = catchUpFrom < from ? catchUpFrom : next;
+            if (catchUpFrom >= callbackJournal.endPosition()) {
+                catchingUp = false;
+                log.info("📒 Callback journal caught up at position {}", catchUpFrom);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checkpoints up to the oldest record still unapplied. Records replayed from before a restart are not
+     * tracked in {@code unapplied}, but are read in order, so the applied end bounds them.
+     */
+    private void advanceCheckpoint(List<PendingCallback> applied) {
+        for (PendingCallback callback : applied) {
+            unapplied.remove(callback.journalStart());
+            appliedEnd = Math.max(appliedEnd, callback.journalPosition());
+        }
+
+        Long oldest = unapplied.isEmpty() ? null : unapplied.first();
+        callbackJournal.checkpoint(oldest != null ? Math.min(oldest, appliedEnd) : appliedEnd, false);
+    }
+
+    private boolean applyWithRetry(List<PendingCallback> batch) {
+        long backoffNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+        while (true) {
+            try {
+                apply(batch);
+                return true;
+            } catch (TransientDataAccessException | DataAccessResourceFailureException
+                     | CannotCreateTransactionException e) {
+                if (!running) {
+                    log.error("❌ Database unavailable during shutdown, {} callbacks left in the journal: {}",
+                            batch.size(), e.getMessage());
+                    return false;
+                }
+
+                log.warn("⚠️ Database unavailable, retrying {} callbacks in {} ms: {}",
+                        batch.size(), TimeUnit.NANOSECONDS.toMillis(backoffNanos), e.getMessage());
+                LockSupport.parkNanos(backoffNanos);
+                backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+            } catch (Exception e) {
+                if (batch.size() == 1) {
+                    return deadLetter(batch.get(0), e);
+                }
+
+                // The batch rolled back as a whole; find the record that breaks it
+                log.warn("⚠️ Failed to apply {} callbacks, retrying one at a time: {}", batch.size(), e.getMessage());
+                for (PendingCallback callback : batch) {
+                    if (!applyWithRetry(List.of(callback))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Parks a callback that cannot be applied. Returns false only when it could not be stored before shutdown,
+     * so the checkpoint stays in front of it and the next start tries again.
+     */
+    private boolean deadLetter(PendingCallback callback, Exception cause) {
+        StatusUpdate update = callback.update();
+        byte[] record = CallbackJournalCodec.encode(update, callback.key());
+        long backoffNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+        while (true) {
+            try {
+                callbackDeadLetterRepository.save(update, record, callback.journalPosition(), String.valueOf(cause));
+                callbackMetrics.deadLettered();
+                log.error("❌ Moved {} callback for video {} to the dead-letter table: {}",
+                        update.status(), update.videoId(), cause.getMessage(), cause);
+                return true;
+            } catch (Exception e) {
+                if (!running) {
+                    log.error("❌ Could not dead-letter {} callback for video {} during shutdown, left in the journal: {}",
+                            update.status(), update.videoId(), e.getMessage());
+                    return false;
+                }
+
+                log.warn("⚠️ Could not dead-letter {} callback for video {}, retrying in {} ms: {}", update.status(),
+                        update.videoId(), TimeUnit.NANOSECONDS.toMillis(backoffNanos), e.getMessage());
+                LockSupport.parkNanos(backoffNanos);
+                backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    private void apply(List<PendingCallback> batch) {
+        List<PendingCallback> advanced = new ArrayList<>();
+        List<PendingCallback> completed = new ArrayList<>();
+        List<PendingCallback> failed = new ArrayList<>();
+
+        for (PendingCallback callback : batch) {
+            StatusUpdate update = callback.update();
+
+            if (update.isProgressOnly()) {
+                progressCoalescer.submit(update);
+                callbackDeduplicator.remember(callback.key());
+                continue;
+            }
+
+            progressCoalescer.discard(update.videoId());
+            switch (update.status()) {
+                case COMPLETED -> completed.add(callback);
+                case FAILED -> failed.add(callback);
+                default -> advanced.add(callback);
+            }
+        }
+
+        if (advanced.isEmpty() && completed.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+
+        long[][] versions = new long[3][];
+        transactionTemplate.executeWithoutResult(tx -> {
+            versions[0] = videoStatusJdbcRepository.advance(updatesOf(advanced));
+            versions[1] = videoStatusJdbcRepository.complete(updatesOf(completed));
+            versions[2] = videoStatusJdbcRepository.fail(updatesOf(failed));
+        });
+
+        afterCommit(advanced, versions[0]);
+        afterCommit(completed, versions[1]);
+        afterCommit(failed, versions[2]);
+    }
+
+    private void afterCommit(List<PendingCallback> callbacks, long[] versions) {
+        for (int i = 0; i < callbacks.size(); i++) {
+            PendingCallback callback = callbacks.get(i);
+            StatusUpdate update = callback.update();
+            callbackDeduplicator.remember(callback.key());
+
+            if (versions[i] == 0) {
+                callbackMetrics.staleTerminal();
+                log.warn("⚠️ Dropped stale or unknown {} callback for video {} ({}%)",
+                        update.status(), update.videoId(), update.progress());
+            } else {
+                callbackMetrics.applied(update);
+                publish(VideoStatusChangedEvent.of(update, versions[i]));
+                log.info("✅ Updated video {} status to {} ({}%)", update.videoId(), update.status(), update.progress());
+            }
+        }
+    }
+
+    // Already committed: a failing listener must not make the batch look unapplied and send it to the dead letters
+    private void publish(VideoStatusChangedEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.error("❌ Status listener failed for video {}: {}", event.videoId(), e.getMessage(), e);
+        }
+    }
+
+    private static List<StatusUpdate> updatesOf(List<PendingCallback> callbacks) {
+        return callbacks.stream().map(PendingCallback::update).toList();
+    }
+
+    public record PendingCallback(StatusUpdate update, CallbackDeduplicator.CallbackKey key,
+                                  long journalStart, long journalPosition) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.videoservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU of per-user library sizes, so the optional total on the listing does not run count(*)
+ * for every page. Entries expire after a TTL and are evicted when a video is inserted or deleted.
+ */
+@Component
+public class LibraryCountCache {
+
+    private final Map<String, Entry> entries;
+    private final long ttlNanos;
+
+    public LibraryCountCache(@Value("${app.library.count-cache.max-entries:10000}") int maxEntries,
+                             @Value("${app.library.count-cache.ttl:5m}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Cached count, or one loaded outside the lock and cached unless the user was evicted meanwhile. */
+    public long get(String userId, LongSupplier loader) {
+        long readStamp;
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.count() >= 0 && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                return entry.count();
+            }
+            readStamp = entry != null ? entry.stamp() : 0L;
+        }
+
+        long count = loader.getAsLong();
+        synchronized (this) {
+            Entry current = entries.get(userId);
+            if (current == null || current.stamp() == readStamp) {
+                entries.put(userId, new Entry(count, System.nanoTime(), readStamp));
+            }
+        }
+        return count;
+    }
+
+    public synchronized void evict(String userId) {
+        Entry current = entries.get(userId);
+        long stamp = current != null ? current.stamp() + 1 : 1L;
+        entries.put(userId, new Entry(-1, 0L, stamp));
+    }
+
+    /** Evicts once the surrounding transaction has committed, or immediately without one. */
+    public void evictAfterCommit(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(userId);
+            }
+        });
+    }
+
+    // count -1 marks an evicted user; stamp tells a load that raced with an eviction not to cache
+    private record Entry(long count, long loadedAt, long stamp) {
+    }
+}
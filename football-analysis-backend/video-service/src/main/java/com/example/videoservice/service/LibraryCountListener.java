@@ -0,0 +1,25 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.Video;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the cached library size of a user when one of their videos is inserted or deleted through JPA.
+ */
+@Component
+@RequiredArgsConstructor
+public class LibraryCountListener {
+
+    private final LibraryCountCache libraryCountCache;
+
+    @PostPersist
+    @PostRemove
+    public void evict(Video video) {
+        if (video.getUserId() != null) {
+            libraryCountCache.evictAfterCommit(video.getUserId());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.dto.ai.AICallbackRequest;
+import com.example.videoservice.model.ProcessingStateMachine;
+import com.example.videoservice.model.ProcessingStatus;
+import com.example.videoservice.model.StatusUpdate;
+import com.example.videoservice.repository.VideoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProcessingCallbackService {
+
+    private final CallbackWriter callbackWriter;
+    private final CallbackDeduplicator callbackDeduplicator;
+    private final CallbackMetrics callbackMetrics;
+    private final VideoRepository videoRepository;
+
+    public CallbackOutcome acceptCallback(AICallbackRequest callback) {
+        ProcessingStatus status = ProcessingStateMachine.parse(callback.getStatus());
+        Long videoId = status != null ? resolveVideoId(callback) : null;
+        if (videoId == null) {
+            log.warn("⚠️ Rejected callback with video_id={} job_id={} status={}",
+                    callback.getVideoId(), callback.getJobId(), callback.getStatus());
+            return CallbackOutcome.INVALID;
+        }
+
+        CallbackDeduplicator.CallbackKey key = callbackDeduplicator.keyOf(callback, status);
+        if (callbackDeduplicator.isDuplicate(key)) {
+            callbackMetrics.duplicate();
+            log.debug("🔁 Duplicate callback for video {} ignored: {}", videoId, key);
+            return CallbackOutcome.DUPLICATE;
+        }
+
+        StatusUpdate update = new StatusUpdate(
+                videoId,
+                status,
+                callback.getProgressSafe(),
+                callback.getMessage() != null ? callback.getMessage() : "",
+                callback.getOutputKey() != null && !callback.getOutputKey().isEmpty() ? callback.getOutputKey() : null,
+                callback.hasAnalytics() ? callback.getAnalytics() : null,
+                callback.getError(),
+                System.nanoTime());
+
+        if (!callbackWriter.submit(update, key)) {
+            callbackMetrics.rejected();
+            log.warn("⚠️ Callback journal full, rejecting {} callback for video {}", status, videoId);
+            return CallbackOutcome.BUSY;
+        }
+
+        return CallbackOutcome.ACCEPTED;
+    }
+
+    /**
+     * The callback's video_id, or for a callback that only carries its job id, the video the job was
+     * stored on at submit time.
+     */
+    private Long resolveVideoId(AICallbackRequest callback) {
+        if (callback.getVideoId() != null) {
+            try {
+                return Long.valueOf(callback.getVideoId());
+            } catch (NumberFormatException e) {
+                log.error("❌ Invalid video ID in callback: {}", callback.getVideoId());
+                return null;
+            }
+        }
+        if (callback.getJobId() == null || callback.getJobId().isBlank()) {
+            return null;
+        }
+        return videoRepository.findIdByProcessingJobId(callback.getJobId()).orElse(null);
+    }
+
+    public enum CallbackOutcome {
+        ACCEPTED,
+        DUPLICATE,
+        INVALID,
+        BUSY
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.ProcessingStateMachine;
+import com.example.videoservice.model.StatusUpdate;
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import com.example.videoservice.repository.VideoStatusJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps only the furthest progress and task per video and writes them in one JDBC batch per flush.
+ * The UPDATE only moves progress forward and follows {@link ProcessingStateMachine}, so out-of-order
+ * callbacks are dropped and counted. Terminal states never go through here; {@link CallbackWriter}
+ * writes them through and drives the flushes.
+ */
+@Component
+@Slf4j
+public class ProgressCoalescer {
+
+    private final VideoStatusJdbcRepository videoStatusJdbcRepository;
+    private final CallbackMetrics callbackMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long flushIntervalNanos;
+
+    private final ConcurrentHashMap<Long, StatusUpdate> pending = new ConcurrentHashMap<>();
+    private volatile long lastFlushNanos = System.nanoTime();
+
+    public ProgressCoalescer(VideoStatusJdbcRepository videoStatusJdbcRepository,
+                             CallbackMetrics callbackMetrics,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${app.callback.progress-flush-interval-ms:500}") long flushIntervalMs) {
+        this.videoStatusJdbcRepository = videoStatusJdbcRepository;
+        this.callbackMetrics = callbackMetrics;
+        this.eventPublisher = eventPublisher;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+    }
+
+    public void submit(StatusUpdate update) {
+        StatusUpdate merged = pending.merge(update.videoId(), update,
+                (current, next) -> next.supersedes(current) ? next : current);
+        if (merged != update) {
+            callbackMetrics.staleProgress(1);
+        }
+    }
+
+    public void discard(Long videoId) {
+        pending.remove(videoId);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public void flushIfDue() {
+        if (System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        lastFlushNanos = System.nanoTime();
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<StatusUpdate> batch = new ArrayList<>(pending.size());
+        for (Long videoId : pending.keySet()) {
+            StatusUpdate update = pending.remove(videoId);
+            if (update != null) {
+                batch.add(update);
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            long[] versions = videoStatusJdbcRepository.advance(batch);
+
+            int stale = 0;
+            for (int i = 0; i < versions.length; i++) {
+                if (versions[i] == 0) {
+                    stale++;
+                } else {
+                    callbackMetrics.applied(batch.get(i));
+                    eventPublisher.publishEvent(VideoStatusChangedEvent.of(batch.get(i), versions[i]));
+                }
+            }
+            callbackMetrics.staleProgress(stale);
+            log.debug("💾 Flushed {} coalesced progress updates ({} stale)", batch.size(), stale);
+        } catch (Exception e) {
+            log.error("❌ Failed to flush {} progress updates: {}", batch.size(), e.getMessage());
+            batch.forEach(update -> pending.merge(update.videoId(), update,
+                    (current, next) -> next.supersedes(current) ? next : current));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.datasource.ReplicaRoutingDataSource;
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes for callbacks: a video whose status changed within the staleness window is read from
+ * the primary, because a replica within its allowed lag may not have replayed the change yet. Without
+ * replica routing every read already goes to the primary and this does nothing.
+ */
+@Component
+public class ReplicaReadPolicy {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final Map<Long, Long> recentWrites = new ConcurrentHashMap<>();
+
+    public ReplicaReadPolicy(@Value("${app.datasource.replica.enabled:false}") boolean enabled,
+                             @Value("${app.datasource.replica.read-your-writes-window:${app.datasource.replica.max-lag:5s}}") Duration window) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+    }
+
+    // Before the listeners that wake readers, so their reads already see the write as recent
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onStatusChanged(VideoStatusChangedEvent event) {
+        if (enabled) {
+            recentWrites.put(event.videoId(), System.nanoTime());
+        }
+    }
+
+    public boolean requiresPrimary(Long videoId) {
+        Long writtenAt = recentWrites.get(videoId);
+        return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+    }
+
+    public <T> T read(Long videoId, Supplier<T> query) {
+        return enabled && requiresPrimary(videoId) ? ReplicaRoutingDataSource.onPrimary(query) : query.get();
+    }
+
+    public <T> T read(Collection<Long> videoIds, Supplier<T> query) {
+        if (enabled && videoIds.stream().anyMatch(this::requiresPrimary)) {
+            return ReplicaRoutingDataSource.onPrimary(query);
+        }
+        return query.get();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void expire() {
+        long now = System.nanoTime();
+        recentWrites.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+}
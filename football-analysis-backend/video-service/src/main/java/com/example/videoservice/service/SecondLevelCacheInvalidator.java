@@ -0,0 +1,25 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.Video;
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops a video from the second-level cache once a callback write has committed. Callbacks update
+ * videos through JDBC, which Hibernate never sees; entity saves and bulk JPQL updates invalidate on
+ * their own.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheInvalidator {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onStatusChanged(VideoStatusChangedEvent event) {
+        entityManagerFactory.getCache().evict(Video.class, event.videoId());
+    }
+}
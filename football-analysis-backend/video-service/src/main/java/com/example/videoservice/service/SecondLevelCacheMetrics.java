@@ -0,0 +1,45 @@
+package com.example.videoservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hit ratio per second-level cache region and for the query cache, next to the raw hibernate.* hit and
+ * miss counters that hibernate-micrometer publishes. NaN until a region has been read.
+ */
+@Component
+public class SecondLevelCacheMetrics {
+
+    private static final List<String> ENTITY_REGIONS = List.of("video", "video-analytics");
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (String region : ENTITY_REGIONS) {
+            Gauge.builder("video.l2.hit.ratio", statistics, s -> regionRatio(s, region))
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("video.l2.hit.ratio", statistics,
+                        s -> ratio(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                .tag("region", "query")
+                .register(meterRegistry);
+    }
+
+    private static double regionRatio(Statistics statistics, String region) {
+        CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+        return stats != null ? ratio(stats.getHitCount(), stats.getMissCount()) : Double.NaN;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory registry of parked long-poll requests, woken by committed status changes. The listener runs
+ * on the callback writer thread, so it only claims the matching waiters and hands their callbacks to the
+ * task executor; nothing blocks while waiting and the database is not polled.
+ */
+@Component
+public class StatusChangeRegistry {
+
+    private final ConcurrentHashMap<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final TaskExecutor taskExecutor;
+
+    public StatusChangeRegistry(@Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                MeterRegistry meterRegistry) {
+        this.taskExecutor = taskExecutor;
+        Gauge.builder("video.status.long-poll.waiting", waiting, AtomicInteger::get)
+                .description("Status requests parked until their video changes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code onChange} once, on the task executor, after a change with a version above {@code afterVersion}.
+     */
+    public Waiter register(Long videoId, long afterVersion, Runnable onChange) {
+        Waiter waiter = new Waiter(videoId, afterVersion, onChange);
+        // Counted first, and added inside compute so claim() cannot drop the set between lookup and add
+        waiting.incrementAndGet();
+        waiters.compute(videoId, (id, set) -> {
+            Set<Waiter> watching = set != null ? set : ConcurrentHashMap.newKeySet();
+            watching.add(waiter);
+            return watching;
+        });
+        return waiter;
+    }
+
+    public void cancel(Waiter waiter) {
+        if (claim(waiter)) {
+            waiting.decrementAndGet();
+        }
+    }
+
+    // After VideoStatusCache has evicted, so the woken requests read the new status
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onStatusChanged(VideoStatusChangedEvent event) {
+        Set<Waiter> watching = waiters.get(event.videoId());
+        if (watching == null) {
+            return;
+        }
+        for (Waiter waiter : watching) {
+            if (event.version() > waiter.afterVersion() && claim(waiter)) {
+                waiting.decrementAndGet();
+                taskExecutor.execute(waiter.onChange());
+            }
+        }
+    }
+
+    private boolean claim(Waiter waiter) {
+        boolean[] removed = new boolean[1];
+        waiters.computeIfPresent(waiter.videoId(), (id, set) -> {
+            removed[0] = set.remove(waiter);
+            return set.isEmpty() ? null : set;
+        });
+        return removed[0];
+    }
+
+    public static final class Waiter {
+
+        private final Long videoId;
+        private final long afterVersion;
+        private final Runnable onChange;
+
+        private Waiter(Long videoId, long afterVersion, Runnable onChange) {
+            this.videoId = videoId;
+            this.afterVersion = afterVersion;
+            this.onChange = onChange;
+        }
+
+        Long videoId() {
+            return videoId;
+        }
+
+        long afterVersion() {
+            return afterVersion;
+        }
+
+        Runnable onChange() {
+            return onChange;
+        }
+    }
+}
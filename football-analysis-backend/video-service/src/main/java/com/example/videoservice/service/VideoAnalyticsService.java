@@ -6,13 +6,14 @@ import com.example.videoservice.repository.VideoRepository;
 import com.example.videoservice.repository.VideoAnalyticsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -23,205 +24,116 @@ public class VideoAnalyticsService {
     private final VideoRepository videoRepository;
     private final VideoAnalyticsRepository videoAnalyticsRepository;
 
-    @Async
-    @Transactional
-    public void extractAnalyticsFromProcessedVideo(Long videoId) {
-        log.info("📊 Starting analytics extraction for video {}", videoId);
-
-        try {
-            Optional<Video> videoOpt = videoRepository.findById(videoId);
-            if (videoOpt.isEmpty()) {
-                log.warn("⚠️ Video not found for analytics extraction: {}", videoId);
-                return;
-            }
-
-            Video video = videoOpt.get();
-
-            if (video.getProcessedFileKey() == null) {
-                log.warn("⚠️ No processed file key found for video {}", videoId);
-                return;
-            }
-
-            createAnalyticsFromProcessedVideo(video);
-
-            log.info("✅ Analytics extraction completed for video {}", videoId);
-
-        } catch (Exception e) {
-            log.error("❌ Error extracting analytics for video {}: {}", videoId, e.getMessage(), e);
+    /**
+     * Every analysis row of an already-loaded video, fetched with one query on
+     * video_analytics(video_id, analysis_type). All analytics responses are assembled from the result.
+     */
+    public AnalyticsSet load(Video video) {
+        Map<VideoAnalytics.AnalysisType, VideoAnalytics> byType = new EnumMap<>(VideoAnalytics.AnalysisType.class);
+        for (VideoAnalytics row : videoAnalyticsRepository.findByVideoId(video.getId())) {
+            // Re-extraction can leave several rows per type; the newest one wins
+            byType.merge(row.getAnalysisType(), row, (current, candidate) ->
+                    candidate.getCreatedAt().isAfter(current.getCreatedAt()) ? candidate : current);
         }
+        return new AnalyticsSet(video, byType);
     }
 
-    private void createAnalyticsFromProcessedVideo(Video video) {
-
-        VideoAnalytics teamStats = new VideoAnalytics();
-        teamStats.setVideo(video);
-        teamStats.setAnalysisType(VideoAnalytics.AnalysisType.TEAM_STATISTICS);
-
-        teamStats.setTeam1PossessionPercentage(65.0);
-        teamStats.setTeam2PossessionPercentage(35.0);
-        teamStats.setTotalPasses(234);
-        teamStats.setTeam1Passes(152);
-        teamStats.setTeam2Passes(82);
-
-        Map<String, Object> teamData = new HashMap<>();
-        teamData.put("team1_color", "#FF0000");
-        teamData.put("team2_color", "#0000FF");
-        teamData.put("total_players_detected", 22);
-        teamStats.setAnalysisData(teamData);
-
-        videoAnalyticsRepository.save(teamStats);
-
-        VideoAnalytics speedStats = new VideoAnalytics();
-        speedStats.setVideo(video);
-        speedStats.setAnalysisType(VideoAnalytics.AnalysisType.SPEED_ANALYSIS);
-        speedStats.setAvgPlayerSpeed(15.2);
-        speedStats.setMaxPlayerSpeed(28.5);
-        speedStats.setTotalDistanceCovered(12450.0);
+    public Optional<AnalyticsSet> load(Long videoId) {
+        return videoRepository.findById(videoId).map(this::load);
+    }
 
-        videoAnalyticsRepository.save(speedStats);
+    public Map<String, Object> getPlayerTrackingData(Long videoId) {
 
-        log.info("📈 Created analytics for video {}", video.getId());
+        Map<String, Object> trackingData = new HashMap<>();
+        trackingData.put("total_players_detected", 22);
+        trackingData.put("tracking_accuracy", 95.2);
+        trackingData.put("video_id", videoId);
+        return trackingData;
     }
 
-    public Map<String, Object> getAnalyticsSummary(Long videoId) {
-        Map<String, Object> summary = new HashMap<>();
+    /**
+     * The analytics of one video keyed by type, with the response shapes of the analytics endpoints.
+     * Missing types yield empty sections, as before.
+     */
+    public static final class AnalyticsSet {
+        private final Video video;
+        private final Map<VideoAnalytics.AnalysisType, VideoAnalytics> byType;
+
+        AnalyticsSet(Video video, Map<VideoAnalytics.AnalysisType, VideoAnalytics> byType) {
+            this.video = video;
+            this.byType = byType;
+        }
 
-        try {
-            Optional<Video> videoOpt = videoRepository.findById(videoId);
-            if (videoOpt.isEmpty()) {
-                return summary;
-            }
+        public Optional<VideoAnalytics> get(VideoAnalytics.AnalysisType type) {
+            return Optional.ofNullable(byType.get(type));
+        }
+
+        public boolean hasAnalytics() {
+            return byType.containsKey(VideoAnalytics.AnalysisType.TEAM_STATISTICS);
+        }
 
-            Video video = videoOpt.get();
+        public LocalDateTime getLastUpdate() {
+            return byType.values().stream()
+                    .map(VideoAnalytics::getUpdatedAt)
+                    .filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder())
+                    .orElse(null);
+        }
 
-            Optional<VideoAnalytics> teamStats = videoAnalyticsRepository
-                    .findByVideoAndAnalysisType(video, VideoAnalytics.AnalysisType.TEAM_STATISTICS);
+        public Map<String, Object> summary() {
+            Map<String, Object> summary = new HashMap<>();
 
-            if (teamStats.isPresent()) {
-                VideoAnalytics stats = teamStats.get();
+            get(VideoAnalytics.AnalysisType.TEAM_STATISTICS).ifPresent(stats -> {
                 summary.put("team1_possession", stats.getTeam1PossessionPercentage());
                 summary.put("team2_possession", stats.getTeam2PossessionPercentage());
                 summary.put("total_passes", stats.getTotalPasses());
                 summary.put("team1_passes", stats.getTeam1Passes());
                 summary.put("team2_passes", stats.getTeam2Passes());
                 summary.put("analysis_data", stats.getAnalysisData());
-            }
-
-            Optional<VideoAnalytics> speedStats = videoAnalyticsRepository
-                    .findByVideoAndAnalysisType(video, VideoAnalytics.AnalysisType.SPEED_ANALYSIS);
+            });
 
-            if (speedStats.isPresent()) {
-                VideoAnalytics stats = speedStats.get();
+            get(VideoAnalytics.AnalysisType.SPEED_ANALYSIS).ifPresent(stats -> {
                 summary.put("avg_speed", stats.getAvgPlayerSpeed());
                 summary.put("max_speed", stats.getMaxPlayerSpeed());
                 summary.put("total_distance", stats.getTotalDistanceCovered());
-            }
+            });
 
-            summary.put("video_id", videoId);
+            summary.put("video_id", video.getId());
             summary.put("processing_completed", video.isAiAnalysisCompleted());
-
-        } catch (Exception e) {
-            log.error("Error getting analytics summary for video {}: {}", videoId, e.getMessage());
-        }
-
-        return summary;
-    }
-
-    public Map<String, Object> getTeamStatistics(Long videoId) {
-        Optional<Video> videoOpt = videoRepository.findById(videoId);
-        if (videoOpt.isEmpty()) {
-            return Map.of();
+            return summary;
         }
 
-        Optional<VideoAnalytics> teamStats = videoAnalyticsRepository
-                .findByVideoAndAnalysisType(videoOpt.get(), VideoAnalytics.AnalysisType.TEAM_STATISTICS);
-
-        if (teamStats.isEmpty()) {
-            return Map.of();
+        public Map<String, Object> teamStatistics() {
+            Map<String, Object> teamStats = new HashMap<>();
+            get(VideoAnalytics.AnalysisType.TEAM_STATISTICS).ifPresent(stats -> {
+                teamStats.put("team1_possession", stats.getTeam1PossessionPercentage());
+                teamStats.put("team2_possession", stats.getTeam2PossessionPercentage());
+                teamStats.put("team1_passes", stats.getTeam1Passes());
+                teamStats.put("team2_passes", stats.getTeam2Passes());
+                teamStats.put("total_passes", stats.getTotalPasses());
+                teamStats.put("team_data", stats.getAnalysisData());
+            });
+            return teamStats;
         }
 
-        VideoAnalytics stats = teamStats.get();
-        return Map.of(
-                "team1_possession", stats.getTeam1PossessionPercentage(),
-                "team2_possession", stats.getTeam2PossessionPercentage(),
-                "team1_passes", stats.getTeam1Passes(),
-                "team2_passes", stats.getTeam2Passes(),
-                "total_passes", stats.getTotalPasses(),
-                "team_data", stats.getAnalysisData()
-        );
-    }
-
-    public Map<String, Object> getPlayerTrackingData(Long videoId) {
-
-        Map<String, Object> trackingData = new HashMap<>();
-        trackingData.put("total_players_detected", 22);
-        trackingData.put("tracking_accuracy", 95.2);
-        trackingData.put("video_id", videoId);
-        return trackingData;
-    }
-
-    public Map<String, Object> getPassAnalysis(Long videoId) {
-        Optional<Video> videoOpt = videoRepository.findById(videoId);
-        if (videoOpt.isEmpty()) {
-            return Map.of();
+        public Map<String, Object> passAnalysis() {
+            Map<String, Object> passes = new HashMap<>();
+            get(VideoAnalytics.AnalysisType.TEAM_STATISTICS).ifPresent(stats -> {
+                passes.put("total_passes", stats.getTotalPasses());
+                passes.put("team1_passes", stats.getTeam1Passes());
+                passes.put("team2_passes", stats.getTeam2Passes());
+            });
+            return passes;
         }
 
-        Optional<VideoAnalytics> teamStats = videoAnalyticsRepository
-                .findByVideoAndAnalysisType(videoOpt.get(), VideoAnalytics.AnalysisType.TEAM_STATISTICS);
-
-        if (teamStats.isEmpty()) {
-            return Map.of();
+        public Map<String, Object> speedDistance() {
+            Map<String, Object> speed = new HashMap<>();
+            get(VideoAnalytics.AnalysisType.SPEED_ANALYSIS).ifPresent(stats -> {
+                speed.put("avg_player_speed", stats.getAvgPlayerSpeed());
+                speed.put("max_player_speed", stats.getMaxPlayerSpeed());
+                speed.put("total_distance_covered", stats.getTotalDistanceCovered());
+            });
+            return speed;
         }
-
-        VideoAnalytics stats = teamStats.get();
-        return Map.of(
-                "total_passes", stats.getTotalPasses(),
-                "team1_passes", stats.getTeam1Passes(),
-                "team2_passes", stats.getTeam2Passes()
-        );
-    }
-
-    public Map<String, Object> getSpeedDistanceData(Long videoId) {
-        Optional<Video> videoOpt = videoRepository.findById(videoId);
-        if (videoOpt.isEmpty()) {
-            return Map.of();
-        }
-
-        Optional<VideoAnalytics> speedStats = videoAnalyticsRepository
-                .findByVideoAndAnalysisType(videoOpt.get(), VideoAnalytics.AnalysisType.SPEED_ANALYSIS);
-
-        if (speedStats.isEmpty()) {
-            return Map.of();
-        }
-
-        VideoAnalytics stats = speedStats.get();
-        return Map.of(
-                "avg_player_speed", stats.getAvgPlayerSpeed(),
-                "max_player_speed", stats.getMaxPlayerSpeed(),
-                "total_distance_covered", stats.getTotalDistanceCovered()
-        );
-    }
-
-    public boolean hasAnalytics(Long videoId) {
-        Optional<Video> videoOpt = videoRepository.findById(videoId);
-        if (videoOpt.isEmpty()) {
-            return false;
-        }
-
-        return videoAnalyticsRepository.findByVideoAndAnalysisType(
-                videoOpt.get(), VideoAnalytics.AnalysisType.TEAM_STATISTICS).isPresent();
-    }
-
-    public LocalDateTime getLastAnalyticsUpdate(Long videoId) {
-        Optional<Video> videoOpt = videoRepository.findById(videoId);
-        if (videoOpt.isEmpty()) {
-            return null;
-        }
-
-        return videoAnalyticsRepository.findByVideoOrderByCreatedAtDesc(videoOpt.get())
-                .stream()
-                .findFirst()
-                .map(VideoAnalytics::getUpdatedAt)
-                .orElse(null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed status changes out to Server-Sent Event subscribers. Listeners run on the callback writer
+ * thread, so they only record the newest event per watched video; a separate dispatch thread sends them.
+ * Event ids are the video's status_version: a subscriber never receives a version it already has, which
+ * makes {@code Last-Event-ID} resume and the initial snapshot race-free.
+ */
+@Service
+@Slf4j
+public class VideoEventBroker {
+
+    private final ConcurrentHashMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, VideoStatusChangedEvent> pendingEvents = new ConcurrentHashMap<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService dispatcher;
+    private final long timeoutMs;
+    private final long reconnectMs;
+
+    public VideoEventBroker(@Value("${app.sse.timeout-ms:1800000}") long timeoutMs,
+                            @Value("${app.sse.reconnect-ms:3000}") long reconnectMs) {
+        this.timeoutMs = timeoutMs;
+        this.reconnectMs = reconnectMs;
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers a stream for the snapshot's video and sends the snapshot unless the client already has
+     * that version. A terminal snapshot ends the stream right after it is sent.
+     */
+    public SseEmitter subscribe(VideoStatusChangedEvent snapshot, long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(snapshot.videoId(), emitter, lastEventId);
+
+        // Added inside compute so remove() cannot drop the set between lookup and add
+        subscriptions.compute(snapshot.videoId(), (id, set) -> {
+            Set<Subscription> watchers = set != null ? set : ConcurrentHashMap.newKeySet();
+            watchers.add(subscription);
+            return watchers;
+        });
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+
+        subscription.deliver(snapshot);
+        if (snapshot.isTerminal()) {
+            subscription.close();
+        }
+
+        log.debug("📡 SSE subscriber added for video {} (resume after {})", snapshot.videoId(), lastEventId);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @EventListener
+    public void onStatusChanged(VideoStatusChangedEvent event) {
+        if (!subscriptions.containsKey(event.videoId())) {
+            return;
+        }
+        pendingEvents.merge(event.videoId(), event,
+                (current, next) -> next.version() > current.version() ? next : current);
+        if (drainScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscriptions.values().forEach(set -> set.forEach(Subscription::heartbeat));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscriptions.values().forEach(set -> set.forEach(Subscription::close));
+        subscriptions.clear();
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        for (Long videoId : pendingEvents.keySet()) {
+            VideoStatusChangedEvent event = pendingEvents.remove(videoId);
+            Set<Subscription> watchers = subscriptions.get(videoId);
+            if (event == null || watchers == null) {
+                continue;
+            }
+            for (Subscription subscription : watchers) {
+                subscription.deliver(event);
+                if (event.isTerminal()) {
+                    subscription.close();
+                }
+            }
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.videoId, (id, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscription {
+
+        private final Long videoId;
+        private final SseEmitter emitter;
+        private long lastVersion;
+        private boolean closed;
+
+        private Subscription(Long videoId, SseEmitter emitter, long lastVersion) {
+            this.videoId = videoId;
+            this.emitter = emitter;
+            this.lastVersion = lastVersion;
+        }
+
+        synchronized void deliver(VideoStatusChangedEvent event) {
+            if (closed || event.version() <= lastVersion) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.version()))
+                        .name(eventName(event))
+                        .reconnectTime(reconnectMs)
+                        .data(payloadOf(event)));
+                lastVersion = event.version();
+            } catch (IOException | IllegalStateException e) {
+                fail(e);
+            }
+        }
+
+        synchronized void heartbeat() {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                fail(e);
+            }
+        }
+
+        synchronized void close() {
+            if (!closed) {
+                closed = true;
+                emitter.complete();
+                remove(this);
+            }
+        }
+
+        private void fail(Exception e) {
+            log.debug("📡 SSE subscriber for video {} went away: {}", videoId, e.getMessage());
+            closed = true;
+            emitter.completeWithError(e);
+            remove(this);
+        }
+    }
+
+    private static String eventName(VideoStatusChangedEvent event) {
+        return switch (event.status()) {
+            case COMPLETED -> "completed";
+            case FAILED -> "failed";
+            default -> "status";
+        };
+    }
+
+    private static Map<String, Object> payloadOf(VideoStatusChangedEvent event) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("videoId", event.videoId());
+        payload.put("version", event.version());
+        payload.put("status", event.status().name().toLowerCase());
+        payload.put("progress", event.progress());
+        payload.put("currentTask", event.currentTask());
+        payload.put("outputKey", event.outputKey());
+        if (event.error() != null) {
+            payload.put("error", event.error());
+        }
+        return payload;
+    }
+}
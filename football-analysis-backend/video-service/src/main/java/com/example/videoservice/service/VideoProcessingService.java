@@ -1,39 +1,81 @@
 package com.example.videoservice.service;
 
+import com.example.videoservice.dto.BulkProcessResult;
+import com.example.videoservice.dto.DispatchTarget;
 import com.example.videoservice.model.Video;
 import com.example.videoservice.model.ProcessingStatus;
+import com.example.videoservice.model.VideoStatusChangedEvent;
 import com.example.videoservice.repository.VideoRepository;
+import com.example.videoservice.repository.VideoStatusJdbcRepository;
+import jakarta.persistence.EntityManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Starts processing on the AI service. Every status transition goes through a conditional UPDATE of
+ * {@link VideoStatusJdbcRepository} that bumps status_version, and the resulting events are published after
+ * commit, so the status streams see these transitions the same way they see callbacks.
+ */
 @Service
 public class VideoProcessingService {
 
     public static final Logger logger = LoggerFactory.getLogger(VideoProcessingService.class);
 
+    // Processing may be (re)started by the user from these; PROCESSING and COMPLETED are refused
+    private static final Set<ProcessingStatus> STARTABLE =
+            EnumSet.of(ProcessingStatus.UPLOADED, ProcessingStatus.PENDING, ProcessingStatus.FAILED);
+
     @Autowired
     private VideoRepository videoRepository;
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private VideoStatusJdbcRepository videoStatusJdbcRepository;
+
+    @Autowired
+    private VideoStatusCache videoStatusCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Value("${ai.service.url:http://localhost:8000}")
     private String aiServiceUrl;
 
     @Value("${app.callback.base-url:http://localhost:8082}")
     private String callbackBaseUrl;
 
+    @Value("${app.processing.bulk.max-videos:200}")
+    private int maxBulkVideos;
+
     public void startProcessing(Long videoId, String userId) {
         logger.info("🎬 Starting processing for video: {} by user: {}", videoId, userId);
 
@@ -50,49 +92,210 @@ public class VideoProcessingService {
 
         Video video = videoOpt.get();
 
-        try {
-
-            video.setProcessingStatus(ProcessingStatus.PROCESSING);
-            video.setProcessingProgress(0);
-            video.setProcessingStartedAt(java.time.LocalDateTime.now());
-            videoRepository.save(video);
-            logger.info("✅ Updated video {} status to PROCESSING for user: {}", videoId, userId);
+        // A queued video may be started directly; the dispatcher's own UPDATE then matches nothing
+        Set<ProcessingStatus> from = EnumSet.copyOf(STARTABLE);
+        from.add(ProcessingStatus.QUEUED);
+        List<VideoStatusChangedEvent> started = videoStatusJdbcRepository.startAll(List.of(videoId), from);
+        if (started.isEmpty()) {
+            logger.warn("⚠️ Video {} was started or finished concurrently, not submitting it again", videoId);
+            return;
+        }
+        publishAfterCommit(started);
+        logger.info("✅ Updated video {} status to PROCESSING for user: {}", videoId, userId);
 
+        try {
             callAiService(video);
-
         } catch (Exception e) {
             logger.error("❌ Error starting processing for video {} for user {}: {}", videoId, userId, e.getMessage(), e);
 
-            video.setProcessingStatus(ProcessingStatus.FAILED);
-            video.setProcessingError("Failed to start processing: " + e.getMessage());
-            videoRepository.save(video);
+            fail(List.of(videoId), "Failed to start processing: " + e.getMessage());
             throw e;
         }
     }
 
+    @Transactional
+    public List<BulkProcessResult> queueForProcessing(List<Long> videoIds, String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+
+        if (videoIds == null || videoIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one video ID is required");
+        }
+
+        Set<Long> requestedIds = new LinkedHashSet<>(videoIds);
+        if (requestedIds.size() > maxBulkVideos) {
+            throw new IllegalArgumentException("A bulk request may contain at most " + maxBulkVideos + " videos");
+        }
+
+        logger.info("🎬 Bulk processing request for {} videos by user: {}", requestedIds.size(), userId);
+
+        Map<Long, Video> owned = videoRepository.findByIdInAndUserId(requestedIds, userId).stream()
+                .collect(Collectors.toMap(Video::getId, Function.identity()));
+
+        Map<Long, BulkProcessResult> results = new LinkedHashMap<>();
+        List<Long> toQueue = new ArrayList<>();
+
+        for (Long videoId : requestedIds) {
+            Video video = owned.get(videoId);
+            if (video == null) {
+                results.put(videoId, BulkProcessResult.of(videoId, "not_found", "Video not found or access denied"));
+            } else if (video.isProcessing() || video.isQueued()) {
+                results.put(videoId, BulkProcessResult.of(videoId, "already_processing", "Video is already being processed"));
+            } else if (video.isCompleted()) {
+                results.put(videoId, BulkProcessResult.of(videoId, "already_completed", "Video processing already completed"));
+            } else {
+                toQueue.add(videoId);
+                results.put(videoId, null);
+            }
+        }
+
+        if (!toQueue.isEmpty()) {
+            // Only the rows the conditional UPDATE changed are queued; the rest were started concurrently
+            List<VideoStatusChangedEvent> queued = videoStatusJdbcRepository.queueAll(toQueue, STARTABLE);
+            Set<Long> queuedIds = queued.stream().map(VideoStatusChangedEvent::videoId).collect(Collectors.toSet());
+            for (Long videoId : toQueue) {
+                results.put(videoId, queuedIds.contains(videoId)
+                        ? BulkProcessResult.of(videoId, "queued", "Video queued for processing")
+                        : BulkProcessResult.of(videoId, "already_processing", "Video is already being processed"));
+            }
+            publishAfterCommit(queued);
+            logger.info("⏳ Queued {} of {} requested videos for user: {}", queued.size(), requestedIds.size(), userId);
+        }
+
+        return new ArrayList<>(results.values());
+    }
+
+    @Async
+    public void dispatchQueued(List<Long> videoIds, String userId) {
+        if (videoIds == null || videoIds.isEmpty()) {
+            return;
+        }
+
+        logger.info("🚚 Dispatching {} queued videos for user: {}", videoIds.size(), userId);
+
+        try {
+            checkAiServiceHealth();
+        } catch (Exception e) {
+            fail(videoIds, "Failed to start processing: " + e.getMessage());
+            return;
+        }
+
+        List<DispatchTarget> targets = videoRepository.findDispatchTargets(videoIds, ProcessingStatus.QUEUED);
+        if (targets.size() < videoIds.size()) {
+            logger.warn("⚠️ Skipping {} videos that are no longer queued", videoIds.size() - targets.size());
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        List<Long> targetIds = targets.stream().map(DispatchTarget::getVideoId).toList();
+        List<VideoStatusChangedEvent> started =
+                videoStatusJdbcRepository.startAll(targetIds, EnumSet.of(ProcessingStatus.QUEUED));
+        publishAfterCommit(started);
+        Set<Long> startedIds = started.stream().map(VideoStatusChangedEvent::videoId).collect(Collectors.toSet());
+
+        for (DispatchTarget target : targets) {
+            if (startedIds.contains(target.getVideoId())) {
+                submit(target);
+            }
+        }
+
+        logger.info("✅ Dispatch finished for {} videos of user: {}", videoIds.size(), userId);
+    }
+
+    private void checkAiServiceHealth() {
+        String healthUrl = aiServiceUrl + "/health";
+        logger.info("🏥 Checking AI service health at: {}", healthUrl);
+
+        try {
+            ResponseEntity<Map> healthResponse = restTemplate.getForEntity(healthUrl, Map.class);
+            if (!healthResponse.getStatusCode().is2xxSuccessful()) {
+                throw new RuntimeException("AI service health check failed");
+            }
+            logger.info("✅ AI service is healthy");
+        } catch (Exception healthError) {
+            logger.error("❌ AI service health check failed: {}", healthError.getMessage());
+            throw new RuntimeException("AI service is not available: " + healthError.getMessage());
+        }
+    }
+
     private void callAiService(Video video) {
         try {
+            checkAiServiceHealth();
+        } catch (Exception e) {
+            logger.error("❌ Error calling AI service: {}", e.getMessage(), e);
 
-            String healthUrl = aiServiceUrl + "/health";
-            logger.info("🏥 Checking AI service health at: {}", healthUrl);
-
-            try {
-                ResponseEntity<Map> healthResponse = restTemplate.getForEntity(healthUrl, Map.class);
-                if (!healthResponse.getStatusCode().is2xxSuccessful()) {
-                    throw new RuntimeException("AI service health check failed");
-                }
-                logger.info("✅ AI service is healthy");
-            } catch (Exception healthError) {
-                logger.error("❌ AI service health check failed: {}", healthError.getMessage());
-                throw new RuntimeException("AI service is not available: " + healthError.getMessage());
+            fail(List.of(video.getId()), "AI service error: " + e.getMessage());
+            return;
+        }
+
+        submit(new DispatchTarget(video.getId(), video.getUserId(), video.getOriginalFileKey()));
+    }
+
+    /**
+     * Submits a video that is already PROCESSING. The job id is stored without touching the status, so it
+     * never overwrites progress a callback wrote in the meantime.
+     */
+    private void submit(DispatchTarget target) {
+        try {
+            String jobId = requestProcessing(target);
+            if (jobId != null && videoStatusJdbcRepository.updateJobId(target.getVideoId(), jobId)) {
+                // A bulk JPQL update would drop the whole video cache region; only this entry is stale
+                afterCommit(() -> entityManagerFactory.getCache().evict(Video.class, target.getVideoId()));
+                videoStatusCache.evictAfterCommit(List.of(target.getVideoId()));
+                logger.info("💾 Saved job_id: {} for video: {}", jobId, target.getVideoId());
             }
+        } catch (IllegalStateException e) {
+            fail(List.of(target.getVideoId()), e.getMessage());
+        }
+    }
+
+    private void fail(List<Long> videoIds, String error) {
+        publishAfterCommit(videoStatusJdbcRepository.failAll(videoIds, error));
+    }
+
+    private void publishAfterCommit(List<VideoStatusChangedEvent> events) {
+        if (!events.isEmpty()) {
+            afterCommit(() -> events.forEach(this::publish));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // The UPDATE has committed, a failing listener must not turn it into a processing failure
+    private void publish(VideoStatusChangedEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            logger.error("❌ Status listener failed for video {}: {}", event.videoId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Submits the job and returns the AI service's job id, which may be null. Failures are logged and
+     * rethrown as {@link IllegalStateException} carrying the error to store on the video.
+     */
+    private String requestProcessing(DispatchTarget target) {
+        try {
 
             String url = aiServiceUrl + "/internal/process-video";
 
             Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("video_id", video.getId().toString());
-            requestBody.put("video_key", video.getOriginalFileKey());
-            requestBody.put("user_id", video.getUserId());
+            requestBody.put("video_id", target.getVideoId().toString());
+            requestBody.put("video_key", target.getOriginalFileKey());
+            requestBody.put("user_id", target.getUserId());
 
             String callbackUrl;
             if (callbackBaseUrl.contains("localhost")) {
@@ -121,7 +324,7 @@ public class VideoProcessingService {
 
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
 
-            logger.info("🔗 Calling AI service at: {} with video_id: {}", url, video.getId());
+            logger.info("🔗 Calling AI service at: {} with video_id: {}", url, target.getVideoId());
             logger.info("📞 Callback URL: {}", callbackUrl);
             logger.debug("📋 Request payload: {}", requestBody);
 
@@ -131,36 +334,24 @@ public class VideoProcessingService {
                 Map<String, Object> responseBody = response.getBody();
                 logger.info("✅ AI service responded successfully: {}", responseBody);
 
-                if (responseBody != null && responseBody.containsKey("job_id")) {
-                    video.setProcessingJobId(responseBody.get("job_id").toString());
-                    video.setProcessingStatus(ProcessingStatus.PROCESSING);
-                    videoRepository.save(video);
-                    logger.info("💾 Saved job_id: {} for video: {}", responseBody.get("job_id"), video.getId());
-                }
+                return responseBody != null && responseBody.get("job_id") != null
+                        ? responseBody.get("job_id").toString()
+                        : null;
             } else {
                 throw new RuntimeException("AI service returned status: " + response.getStatusCode());
             }
 
         } catch (HttpClientErrorException e) {
             logger.error("❌ HTTP error calling AI service: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-
-            video.setProcessingStatus(ProcessingStatus.FAILED);
-            video.setProcessingError("AI service HTTP error: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
-            videoRepository.save(video);
+            throw new IllegalStateException("AI service HTTP error: " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
 
         } catch (ResourceAccessException e) {
             logger.error("❌ Cannot connect to AI service at {}: {}", aiServiceUrl, e.getMessage());
-
-            video.setProcessingStatus(ProcessingStatus.FAILED);
-            video.setProcessingError("AI service unavailable: " + e.getMessage());
-            videoRepository.save(video);
+            throw new IllegalStateException("AI service unavailable: " + e.getMessage());
 
         } catch (Exception e) {
             logger.error("❌ Error calling AI service: {}", e.getMessage(), e);
-
-            video.setProcessingStatus(ProcessingStatus.FAILED);
-            video.setProcessingError("AI service error: " + e.getMessage());
-            videoRepository.save(video);
+            throw new IllegalStateException("AI service error: " + e.getMessage());
         }
     }
 
@@ -200,35 +391,6 @@ public class VideoProcessingService {
         return status;
     }
 
-    public void updateProcessingStatus(Long videoId, ProcessingStatus status, Integer progress, String error) {
-        logger.info("🔄 Updating processing status for video {}: {} ({}%)", videoId, status, progress);
-
-        Optional<Video> videoOpt = videoRepository.findById(videoId);
-        if (videoOpt.isEmpty()) {
-            logger.error("❌ Video not found for status update: {}", videoId);
-            return;
-        }
-
-        Video video = videoOpt.get();
-        video.setProcessingStatus(status);
-
-        if (progress != null) {
-            video.setProcessingProgress(progress);
-        }
-
-        if (error != null) {
-            video.setProcessingError(error);
-        }
-
-        if (status == ProcessingStatus.COMPLETED) {
-            video.setProcessingCompletedAt(java.time.LocalDateTime.now());
-            video.setAiAnalysisCompleted(true);
-        }
-
-        videoRepository.save(video);
-        logger.info("✅ Updated processing status for video: {}", videoId);
-    }
-
     private String getHostMachineIp() {
 
         String hostIp = System.getenv("HOST_MACHINE_IP");
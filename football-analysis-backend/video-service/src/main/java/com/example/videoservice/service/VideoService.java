@@ -1,19 +1,29 @@
 package com.example.videoservice.service;
 
+import com.example.videoservice.dto.BatchStatusRequest;
+import com.example.videoservice.dto.VideoListItem;
 import com.example.videoservice.dto.VideoRegistrationRequest;
-import com.example.videoservice.dto.ai.AICallbackRequest;
+import com.example.videoservice.dto.VideoStatusSummary;
 import com.example.videoservice.model.ProcessingStatus;
 import com.example.videoservice.model.Video;
 import com.example.videoservice.repository.VideoRepository;
+import com.example.videoservice.util.LibraryCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +33,14 @@ public class VideoService {
 
     private final VideoRepository videoRepository;
     private final CloudStorageService cloudStorageService;
+    private final LibraryCountCache libraryCountCache;
+    private final ReplicaReadPolicy replicaReadPolicy;
+
+    @Value("${app.status.batch.max-videos:200}")
+    private int maxStatusBatch;
+
+    @Value("${app.library.max-page-size:100}")
+    private int maxPageSize;
 
     public Video registerUploadedVideo(VideoRegistrationRequest request, String userId) {
         log.info("📋 Registering video for user: {}", userId);
@@ -73,8 +91,36 @@ public class VideoService {
                 .orElseThrow(() -> new RuntimeException("Video not found or access denied"));
     }
 
-    public Page<Video> getUserVideos(String userId, Pageable pageable) {
-        return videoRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
+    /**
+     * One page of the user's library, newest first, seeking past {@code cursor} on (created_at, id)
+     * instead of skipping rows, so every page costs the same.
+     */
+    @Transactional(readOnly = true)
+    public LibraryPage getUserVideos(String userId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        Pageable limit = Pageable.ofSize(pageSize + 1);
+
+        List<VideoListItem> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = videoRepository.findFirstListItems(userId, limit);
+        } else {
+            LibraryCursor after = LibraryCursor.decode(cursor);
+            rows = videoRepository.findListItemsAfter(userId, after.createdAt(), after.id(), limit);
+        }
+
+        // The extra row only tells whether another page exists
+        boolean hasMore = rows.size() > pageSize;
+        List<VideoListItem> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            VideoListItem last = items.get(items.size() - 1);
+            nextCursor = LibraryCursor.after(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new LibraryPage(items, nextCursor, pageSize);
+    }
+
+    public long countUserVideos(String userId) {
+        return libraryCountCache.get(userId, () -> videoRepository.countByUserId(userId));
     }
 
     public void startProcessing(Long videoId, String userId) {
@@ -94,83 +140,6 @@ public class VideoService {
         log.info("🎬 Started processing for video: {}", videoId);
     }
 
-    public void handleProcessingCallback(AICallbackRequest callbackRequest) {
-        try {
-            Long videoId = Long.parseLong(callbackRequest.getVideoId());
-            Optional<Video> videoOpt = videoRepository.findById(videoId);
-            if (videoOpt.isEmpty()) {
-                log.error("❌ Video not found: {}", videoId);
-                throw new RuntimeException("Video not found: " + videoId);
-            }
-
-            Video video = videoOpt.get();
-
-            if (callbackRequest.getUserId() != null && !callbackRequest.getUserId().equals(video.getUserId())) {
-                log.error("❌ User ID mismatch for video {}: callback user {}, video user {}",
-                        videoId, callbackRequest.getUserId(), video.getUserId());
-                throw new RuntimeException("User ID mismatch");
-            }
-
-            String status = callbackRequest.getStatus().toUpperCase();
-            log.info("📥 Processing callback for video {} (user: {}): status={}, progress={}",
-                    videoId, video.getUserId(), status, callbackRequest.getProgressSafe());
-
-            switch (status) {
-                case "COMPLETED":
-                    video.setProcessingStatus(ProcessingStatus.COMPLETED);
-                    video.setProcessingProgress(100);
-                    video.setProcessingCompletedAt(LocalDateTime.now());
-                    video.setAiAnalysisCompleted(true);
-                    video.setProcessingError(null);
-                    if (callbackRequest.getOutputKey() != null) {
-                        video.setProcessedFileKey(callbackRequest.getOutputKey());
-                        log.info("📁 Set processed file key: {}", callbackRequest.getOutputKey());
-                    }
-                    break;
-
-                case "FAILED":
-                    video.setProcessingStatus(ProcessingStatus.FAILED);
-                    video.setProcessingError(callbackRequest.getError() != null ?
-                            callbackRequest.getError() : "Processing failed");
-                    log.error("❌ Video processing failed for user {}: {}", video.getUserId(), video.getProcessingError());
-                    break;
-
-                case "PROCESSING":
-                    try {
-                        Integer progress = callbackRequest.getProgress();
-                        if (progress != null && progress >= 0 && progress <= 100) {
-                            video.setProcessingProgress(progress);
-                            log.info("📊 Updated progress to {}% for user {}", progress, video.getUserId());
-                        }
-                    } catch (Exception e) {
-                        log.debug("No progress information provided in callback");
-                    }
-                    break;
-
-                case "QUEUED":
-                    video.setProcessingStatus(ProcessingStatus.QUEUED);
-                    video.setProcessingProgress(0);
-                    log.info("⏳ Video queued for processing for user {}", video.getUserId());
-                    break;
-
-                default:
-                    log.warn("⚠️ Unknown processing status: {}", callbackRequest.getStatus());
-                    return;
-            }
-
-            videoRepository.save(video);
-            log.info("✅ Updated video {} status to {} ({}%) for user {}",
-                    videoId, status, video.getProcessingProgress(), video.getUserId());
-
-        } catch (NumberFormatException e) {
-            log.error("❌ Invalid video ID in callback: {}", callbackRequest.getVideoId());
-            throw new RuntimeException("Invalid video ID format", e);
-        } catch (Exception e) {
-            log.error("❌ Error handling callback for video {}: {}", callbackRequest.getVideoId(), e.getMessage());
-            throw new RuntimeException("Failed to process callback", e);
-        }
-    }
-
     public Optional<Video> findByIdAndUserId(Long videoId, String userId) {
         return videoRepository.findByIdAndUserId(videoId, userId);
     }
@@ -216,6 +185,66 @@ public class VideoService {
         return video.getProcessingStatusEnum();
     }
 
+    /**
+     * Statuses of the user's queued and processing videos, so a dashboard can find what to follow
+     * without listing the whole library.
+     */
+    @Transactional(readOnly = true)
+    public List<VideoStatusSummary> getActiveStatuses(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        return videoRepository.findActiveStatusesByUserId(userId);
+    }
+
+    /**
+     * Statuses of many videos from one projection query. Videos whose version has not moved past the
+     * client's known version are reported as unchanged, and ids the user does not own as missing.
+     */
+    @Transactional(readOnly = true)
+    public StatusBatch getStatuses(BatchStatusRequest request, String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+
+        Map<Long, Long> known = request.getKnownVersions() != null ? request.getKnownVersions() : Map.of();
+        Set<Long> requestedIds = new LinkedHashSet<>();
+        if (request.getVideoIds() != null) {
+            requestedIds.addAll(request.getVideoIds());
+        }
+        requestedIds.addAll(known.keySet());
+        requestedIds.remove(null);
+
+        if (requestedIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one video ID is required");
+        }
+        if (requestedIds.size() > maxStatusBatch) {
+            throw new IllegalArgumentException("A status batch may contain at most " + maxStatusBatch + " videos");
+        }
+
+        // Runs before the first statement, so the lazy connection is still free to go to the primary
+        Map<Long, VideoStatusSummary> found = replicaReadPolicy.read(requestedIds,
+                        () -> videoRepository.findStatusesByIdInAndUserId(requestedIds, userId)).stream()
+                .collect(Collectors.toMap(VideoStatusSummary::getVideoId, Function.identity()));
+
+        StatusBatch batch = new StatusBatch(requestedIds.size());
+        for (Long videoId : requestedIds) {
+            VideoStatusSummary summary = found.get(videoId);
+            Long knownVersion = known.get(videoId);
+            if (summary == null) {
+                batch.getMissing().add(videoId);
+            } else if (knownVersion != null && summary.getVersion() <= knownVersion) {
+                batch.getUnchanged().add(videoId);
+            } else {
+                batch.getStatuses().add(summary);
+            }
+        }
+
+        log.debug("📊 Status batch for user {}: {} requested, {} changed", userId,
+                requestedIds.size(), batch.getStatuses().size());
+        return batch;
+    }
+
     public ProcessingInfo getProcessingInfo(Long videoId, String userId) {
         Video video = getVideoById(videoId, userId);
 
@@ -245,4 +274,23 @@ public class VideoService {
         private LocalDateTime estimatedCompletionAt;
         private Boolean aiAnalysisCompleted;
     }
+
+    @lombok.Data
+    public static class LibraryPage {
+        private final List<VideoListItem> videos;
+        private final String nextCursor;
+        private final int pageSize;
+
+        public boolean hasMore() {
+            return nextCursor != null;
+        }
+    }
+
+    @lombok.Data
+    public static class StatusBatch {
+        private final int requested;
+        private final List<VideoStatusSummary> statuses = new ArrayList<>();
+        private final List<Long> unchanged = new ArrayList<>();
+        private final List<Long> missing = new ArrayList<>();
+    }
 }
\ No newline at end of file
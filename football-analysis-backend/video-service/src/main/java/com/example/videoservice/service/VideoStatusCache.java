@@ -0,0 +1,110 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of serialized status responses, keyed by video id. Entries are evicted when a callback
+ * commits, when the Video entity is updated or removed, and by the bulk status queries. Each eviction
+ * leaves a tombstone with a stamp, so a response built from a read that started before the eviction is
+ * never cached.
+ */
+@Component
+public class VideoStatusCache {
+
+    private final Map<Long, Object> entries;
+    private long stamp;
+
+    public VideoStatusCache(@Value("${app.status-cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached response when it exists and belongs to {@code userId}; other users fall through
+     * to the database path, which answers 404.
+     */
+    public synchronized StatusSnapshot get(Long videoId, String userId) {
+        return entries.get(videoId) instanceof StatusSnapshot snapshot && snapshot.userId().equals(userId)
+                ? snapshot
+                : null;
+    }
+
+    /** Taken before reading the database; pass it back to {@link #put}. */
+    public synchronized long stamp() {
+        return stamp;
+    }
+
+    public synchronized void put(StatusSnapshot snapshot, long readStamp) {
+        if (entries.get(snapshot.videoId()) instanceof Tombstone tombstone && tombstone.stamp() > readStamp) {
+            return;
+        }
+        entries.put(snapshot.videoId(), snapshot);
+    }
+
+    public synchronized void evict(Long videoId) {
+        entries.put(videoId, new Tombstone(++stamp));
+    }
+
+    public synchronized void evictAll(Collection<Long> videoIds) {
+        long evictedAt = ++stamp;
+        videoIds.forEach(videoId -> entries.put(videoId, new Tombstone(evictedAt)));
+    }
+
+    /**
+     * Evicts once the surrounding transaction has committed, so no reader can cache the old row in between.
+     * Evicts immediately when there is no transaction.
+     */
+    public void evictAfterCommit(Collection<Long> videoIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAll(videoIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evictAll(videoIds);
+            }
+        });
+    }
+
+    // Before the listeners that wake readers, so a woken long-poll never rebuilds from the stale entry
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onStatusChanged(VideoStatusChangedEvent event) {
+        evict(event.videoId());
+    }
+
+    public record StatusSnapshot(Long videoId, String userId, long version, String etag, byte[] body) {
+
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Tombstone(long stamp) {
+    }
+}
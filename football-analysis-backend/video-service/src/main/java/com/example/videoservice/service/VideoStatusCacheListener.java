@@ -0,0 +1,28 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.Video;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Evicts cached status responses when a Video is changed through JPA. JDBC and bulk JPQL writes
+ * do not fire entity callbacks and evict explicitly.
+ */
+@Component
+@RequiredArgsConstructor
+public class VideoStatusCacheListener {
+
+    private final VideoStatusCache videoStatusCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(Video video) {
+        if (video.getId() != null) {
+            videoStatusCache.evictAfterCommit(List.of(video.getId()));
+        }
+    }
+}
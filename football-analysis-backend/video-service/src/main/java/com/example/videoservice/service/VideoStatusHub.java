@@ -0,0 +1,377 @@
+package com.example.videoservice.service;
+
+import com.example.videoservice.model.VideoStatusChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Fans committed status changes out to WebSocket connections that subscribed to the video. The dispatch
+ * thread only hands each change to its watchers; every connection then sends from its own queue on the
+ * send pool, coalescing to the newest version per video, so one slow socket never holds up the others.
+ * Deltas are diffed against what that connection was last sent, and each encoded frame is shared between
+ * connections that start from the same fields. Sessions are wrapped in bounded send buffers by the
+ * handler; a connection whose buffer overflows or send stalls is closed and dropped.
+ *
+ * <p>Binary frames: {@code [u8 type][i64 videoId][i64 version][u8 status ordinal][u8 progress][u8 fields]
+ * [u8 cleared]} followed by {@code [u16 length][utf-8]} for each field bit set (1 task, 2 outputKey,
+ * 4 error). A cleared bit means the field went back to null. JSON frames carry the same keys:
+ * {@code type, id, v, s, p, t, o, e}, plus {@code c} listing the cleared keys when there are any.
+ * A snapshot replaces everything the client knew about the video; a field it omits is null.
+ */
+@Service
+@Slf4j
+public class VideoStatusHub {
+
+    public static final byte FRAME_SNAPSHOT = 1;
+    public static final byte FRAME_DELTA = 2;
+
+    private static final String[] FIELD_KEYS = {"t", "o", "e"};
+
+    private final ConcurrentHashMap<Long, Set<Connection>> watchers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, VideoStatusChangedEvent> pendingEvents = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService dispatcher;
+    private final ExecutorService sender;
+    private final ObjectMapper objectMapper;
+    private final Counter dropped;
+
+    public VideoStatusHub(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          @Value("${app.ws.send-threads:8}") int sendThreads) {
+        this.objectMapper = objectMapper;
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderIds = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ws-send-" + senderIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dropped = Counter.builder("video.ws.dropped")
+                .description("WebSocket connections closed because they could not keep up")
+                .register(meterRegistry);
+        Gauge.builder("video.ws.connections", connections, Set::size)
+                .register(meterRegistry);
+        Gauge.builder("video.ws.subscriptions", watchers, w -> w.values().stream().mapToInt(Set::size).sum())
+                .register(meterRegistry);
+    }
+
+    public void connect(Connection connection) {
+        connections.add(connection);
+    }
+
+    public void disconnect(Connection connection) {
+        connections.remove(connection);
+        connection.sent.keySet().forEach(videoId -> unsubscribe(connection, videoId));
+        connection.pending.clear();
+    }
+
+    public int subscriptionCount(Connection connection) {
+        return connection.sent.size();
+    }
+
+    /**
+     * Adds the video to the connection and queues the snapshot; later deltas older than it are skipped.
+     */
+    public void subscribe(Connection connection, VideoStatusChangedEvent snapshot) {
+        connection.sent.putIfAbsent(snapshot.videoId(), Sent.NONE);
+        // Added inside compute so unsubscribe() cannot drop the set between lookup and add
+        watchers.compute(snapshot.videoId(), (id, set) -> {
+            Set<Connection> targets = set != null ? set : ConcurrentHashMap.newKeySet();
+            targets.add(connection);
+            return targets;
+        });
+        offer(connection, new Outgoing(snapshot));
+    }
+
+    public void unsubscribe(Connection connection, Long videoId) {
+        connection.sent.remove(videoId);
+        watchers.computeIfPresent(videoId, (id, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @EventListener
+    public void onStatusChanged(VideoStatusChangedEvent event) {
+        if (!watchers.containsKey(event.videoId())) {
+            return;
+        }
+        pendingEvents.merge(event.videoId(), event,
+                (current, next) -> next.version() > current.version() ? next : current);
+        if (drainScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+        connections.forEach(connection -> close(connection, CloseStatus.GOING_AWAY));
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        for (Long videoId : pendingEvents.keySet()) {
+            VideoStatusChangedEvent event = pendingEvents.remove(videoId);
+            Set<Connection> targets = watchers.get(videoId);
+            if (event == null || targets == null) {
+                continue;
+            }
+
+            Outgoing outgoing = new Outgoing(event);
+            for (Connection connection : targets) {
+                offer(connection, outgoing);
+            }
+        }
+    }
+
+    private void offer(Connection connection, Outgoing outgoing) {
+        connection.pending.merge(outgoing.event().videoId(), outgoing,
+                (current, next) -> next.event().version() > current.event().version() ? next : current);
+        if (connection.flushScheduled.compareAndSet(false, true)) {
+            sender.execute(() -> flush(connection));
+        }
+    }
+
+    /**
+     * Sends a connection's queued frames. Only one flush per connection runs at a time, so its frames go
+     * out in order and each delta is diffed against the frame sent right before it.
+     */
+    private void flush(Connection connection) {
+        for (Long videoId : connection.pending.keySet()) {
+            Outgoing outgoing = connection.pending.remove(videoId);
+            if (outgoing != null && !send(connection, outgoing)) {
+                return;
+            }
+        }
+        connection.flushScheduled.set(false);
+        if (!connection.pending.isEmpty() && connection.flushScheduled.compareAndSet(false, true)) {
+            sender.execute(() -> flush(connection));
+        }
+    }
+
+    private boolean send(Connection connection, Outgoing outgoing) {
+        VideoStatusChangedEvent event = outgoing.event();
+        Sent previous = connection.sent.get(event.videoId());
+        if (previous == null || event.version() <= previous.version()) {
+            return true;
+        }
+        Frame frame = outgoing.frameAfter(previous.fields(), this::encode);
+        if (!connection.sent.replace(event.videoId(), previous, new Sent(event.version(), Fields.of(event)))) {
+            // Unsubscribed or re-subscribed while this frame was being encoded
+            return true;
+        }
+        try {
+            if (connection.binary) {
+                connection.session.sendMessage(new BinaryMessage(ByteBuffer.wrap(frame.binary())));
+            } else {
+                connection.session.sendMessage(new TextMessage(frame.json()));
+            }
+            return true;
+        } catch (Exception e) {
+            dropped.increment();
+            log.warn("⚠️ Dropping slow or broken WebSocket {} of user {}: {}",
+                    connection.session.getId(), connection.userId, e.getMessage());
+            close(connection, CloseStatus.SESSION_NOT_RELIABLE);
+            return false;
+        }
+    }
+
+    private void close(Connection connection, CloseStatus status) {
+        disconnect(connection);
+        try {
+            connection.session.close(status);
+        } catch (IOException e) {
+            log.debug("WebSocket {} already closed: {}", connection.session.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Encodes the event as a delta against the fields the client already has, or as a full snapshot when
+     * {@code previous} is null.
+     */
+    private Frame encode(VideoStatusChangedEvent event, Fields previous) {
+        byte type = previous == null ? FRAME_SNAPSHOT : FRAME_DELTA;
+        String[] current = Fields.of(event).values();
+        String[] known = previous != null ? previous.values() : new String[current.length];
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("type", type == FRAME_SNAPSHOT ? "snapshot" : "delta");
+        json.put("id", event.videoId());
+        json.put("v", event.version());
+        json.put("s", event.status().name().toLowerCase());
+        json.put("p", event.progress());
+
+        byte[][] strings = new byte[current.length][];
+        List<String> clearedKeys = new ArrayList<>();
+        int size = 1 + 8 + 8 + 1 + 1 + 1 + 1;
+        int fields = 0;
+        int cleared = 0;
+        for (int i = 0; i < current.length; i++) {
+            if (previous != null && Objects.equals(known[i], current[i])) {
+                continue;
+            }
+            if (current[i] == null) {
+                if (previous != null) {
+                    cleared |= 1 << i;
+                    clearedKeys.add(FIELD_KEYS[i]);
+                }
+                continue;
+            }
+            json.put(FIELD_KEYS[i], current[i]);
+            strings[i] = utf8(current[i]);
+            if (strings[i] != null) {
+                fields |= 1 << i;
+                size += 2 + strings[i].length;
+            }
+        }
+        if (!clearedKeys.isEmpty()) {
+            json.put("c", clearedKeys);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+                .put(type)
+                .putLong(event.videoId())
+                .putLong(event.version())
+                .put((byte) event.status().ordinal())
+                .put((byte) event.progress())
+                .put((byte) fields)
+                .put((byte) cleared);
+        for (byte[] string : strings) {
+            if (string != null) {
+                buffer.putShort((short) string.length).put(string);
+            }
+        }
+
+        try {
+            return new Frame(objectMapper.writeValueAsString(json), buffer.array());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode status frame", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return bytes.length > 0xFFFF ? null : bytes;
+    }
+
+    private record Frame(String json, byte[] binary) {
+    }
+
+    /**
+     * The optional status fields in frame bit order: task, outputKey, error.
+     */
+    private record Fields(String task, String outputKey, String error) {
+
+        static Fields of(VideoStatusChangedEvent event) {
+            return new Fields(event.currentTask(), event.outputKey(), event.error());
+        }
+
+        String[] values() {
+            return new String[]{task, outputKey, error};
+        }
+    }
+
+    /**
+     * What a connection was last sent for a video; {@link #NONE} until its snapshot goes out.
+     */
+    private record Sent(long version, Fields fields) {
+
+        static final Sent NONE = new Sent(-1L, null);
+    }
+
+    /**
+     * One change queued for sending, with its frames cached by the fields the receiving client starts from
+     * so every watcher with the same baseline shares one encoding.
+     */
+    private static final class Outgoing {
+
+        private final VideoStatusChangedEvent event;
+        private final ConcurrentHashMap<Fields, Frame> deltas = new ConcurrentHashMap<>();
+        private volatile Frame snapshot;
+
+        Outgoing(VideoStatusChangedEvent event) {
+            this.event = event;
+        }
+
+        VideoStatusChangedEvent event() {
+            return event;
+        }
+
+        Frame frameAfter(Fields previous, BiFunction<VideoStatusChangedEvent, Fields, Frame> encoder) {
+            if (previous != null) {
+                return deltas.computeIfAbsent(previous, fields -> encoder.apply(event, fields));
+            }
+            Frame frame = snapshot;
+            if (frame == null) {
+                frame = encoder.apply(event, null);
+                snapshot = frame;
+            }
+            return frame;
+        }
+    }
+
+    /**
+     * One client WebSocket. {@code sent} holds the version and fields last sent per subscribed video, and
+     * {@code pending} the newest change per video still waiting for this connection's flush.
+     */
+    public static final class Connection {
+
+        private final WebSocketSession session;
+        private final String userId;
+        private final boolean binary;
+        private final ConcurrentHashMap<Long, Sent> sent = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, Outgoing> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+        public Connection(WebSocketSession session, String userId, boolean binary) {
+            this.session = session;
+            this.userId = userId;
+            this.binary = binary;
+        }
+
+        public WebSocketSession getSession() {
+            return session;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+    }
+}
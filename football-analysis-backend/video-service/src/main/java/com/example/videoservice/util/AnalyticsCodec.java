@@ -0,0 +1,186 @@
+package com.example.videoservice.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SegmentedStringWriter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Storage format of {@code video_analytics_payloads.payload_blob}: a two byte header (magic, version) followed by
+ * a zstd frame of Smile. Encoding and decoding stream token by token, no tree is built in between,
+ * and {@link #readField} stops decompressing as soon as the requested field has been read.
+ */
+public final class AnalyticsCodec {
+
+    public static final byte MAGIC = (byte) 0xA7;
+    public static final byte VERSION_SMILE_ZSTD = 1;
+
+    private static final int HEADER_SIZE = 2;
+    private static final int ZSTD_LEVEL = 3;
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final SmileMapper SMILE_MAPPER = new SmileMapper(SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build());
+
+    private AnalyticsCodec() {
+    }
+
+    public static byte[] encode(String json) throws IOException {
+        return encode(json.length(), generator -> {
+            try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+                JsonToken first = parser.nextToken();
+                if (first != JsonToken.START_OBJECT && first != JsonToken.START_ARRAY) {
+                    throw new IOException("Analytics must be a JSON object or array");
+                }
+                generator.copyCurrentStructure(parser);
+                if (parser.nextToken() != null) {
+                    throw new IOException("Trailing content after analytics document");
+                }
+            }
+        });
+    }
+
+    /**
+     * Encodes whatever {@code source} writes to the generator; {@code sizeHint} is the source text length.
+     */
+    public static byte[] encode(int sizeHint, TokenSource source) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, sizeHint / 4));
+        out.write(MAGIC);
+        out.write(VERSION_SMILE_ZSTD);
+
+        try (OutputStream zstd = new ZstdOutputStream(out, ZSTD_LEVEL);
+             JsonGenerator generator = SMILE_MAPPER.getFactory().createGenerator(zstd)) {
+            source.writeTo(generator);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes JSON, or a legacy Python repr literal through {@link PythonLiteralParser}. Returns null when
+     * the text is neither, so callers can keep such values in the TEXT column.
+     */
+    public static byte[] tryEncode(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        try {
+            return encode(text);
+        } catch (IOException e) {
+            try {
+                return encode(text.length(), generator -> PythonLiteralParser.transcode(text, generator));
+            } catch (IOException notPython) {
+                return null;
+            }
+        }
+    }
+
+    public static JsonParser open(byte[] blob) throws IOException {
+        if (blob.length < HEADER_SIZE || blob[0] != MAGIC) {
+            throw new IOException("Not an analytics blob");
+        }
+        if (blob[1] != VERSION_SMILE_ZSTD) {
+            throw new IOException("Unsupported analytics format version " + blob[1]);
+        }
+        return SMILE_MAPPER.createParser(new ZstdInputStream(
+                new ByteArrayInputStream(blob, HEADER_SIZE, blob.length - HEADER_SIZE)));
+    }
+
+    public static Map<String, Object> readMap(byte[] blob) throws IOException {
+        try (JsonParser parser = open(blob)) {
+            return SMILE_MAPPER.readValue(parser, MAP_TYPE);
+        }
+    }
+
+    /**
+     * Transcodes the document straight into {@code generator}, e.g. the one writing an API response.
+     */
+    public static void copyTo(byte[] blob, JsonGenerator generator) throws IOException {
+        try (JsonParser parser = open(blob)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+    }
+
+    /**
+     * True when the text is exactly one JSON object or array. Validates by streaming, nothing is built.
+     */
+    public static boolean isJsonDocument(String text) {
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(text)) {
+            JsonToken first = parser.nextToken();
+            if (first != JsonToken.START_OBJECT && first != JsonToken.START_ARRAY) {
+                return false;
+            }
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static String toJson(byte[] blob) throws IOException {
+        SegmentedStringWriter writer = new SegmentedStringWriter(JSON_FACTORY._getBufferRecycler());
+        try (JsonParser parser = open(blob);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.getAndClear();
+    }
+
+    /**
+     * Reads one nested field, e.g. {@code readField(blob, "team_stats", "total_passes")}, skipping
+     * sibling subtrees without materializing them. Returns a MissingNode when the path is absent.
+     */
+    public static JsonNode readField(byte[] blob, String... path) throws IOException {
+        try (JsonParser parser = open(blob)) {
+            JsonToken token = parser.nextToken();
+            if (path.length == 0) {
+                return parser.readValueAsTree();
+            }
+            for (int depth = 0; depth < path.length; depth++) {
+                if (token != JsonToken.START_OBJECT || !seek(parser, path[depth])) {
+                    return MissingNode.getInstance();
+                }
+                token = parser.currentToken();
+            }
+            return parser.readValueAsTree();
+        }
+    }
+
+    @FunctionalInterface
+    public interface TokenSource {
+        void writeTo(JsonGenerator generator) throws IOException;
+    }
+
+    private static boolean seek(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
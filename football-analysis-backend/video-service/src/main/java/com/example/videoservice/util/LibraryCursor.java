@@ -0,0 +1,40 @@
+package com.example.videoservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Position in a user's library, ordered by (created_at, id) descending. Clients receive it as an opaque
+ * base64url token and send it back unchanged to fetch the next page.
+ */
+public record LibraryCursor(LocalDateTime createdAt, long id) {
+
+    private static final String VERSION = "v1";
+
+    public static LibraryCursor after(LocalDateTime createdAt, Long id) {
+        return new LibraryCursor(createdAt, id);
+    }
+
+    public String encode() {
+        long seconds = createdAt.toEpochSecond(ZoneOffset.UTC);
+        String token = VERSION + ":" + seconds + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** Parses a token produced by {@link #encode()}; anything else is rejected with IllegalArgumentException. */
+    public static LibraryCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+                    Long.parseLong(parts[1]), Integer.parseInt(parts[2]), ZoneOffset.UTC);
+            return new LibraryCursor(createdAt, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package com.example.videoservice.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * Single-pass, lenient parser for Python {@code repr} literals that writes Jackson tokens straight to a
+ * generator. Understands dicts, lists, tuples, sets, str/bytes literals (with r/b/u prefixes and escapes),
+ * ints, floats, True/False/None and nan/inf (written as null). Being lenient for what older workers stored,
+ * it also accepts {@code key=value} pairs, constructor calls such as {@code np.float64(1.5)} or
+ * {@code Stats(a=1)} and bare identifiers, which become strings. Text inside string literals is never
+ * rewritten.
+ */
+public final class PythonLiteralParser {
+
+    private static final int MAX_DEPTH = 512;
+
+    private final String text;
+    private final int length;
+    private final JsonGenerator out;
+    private final StringBuilder buffer = new StringBuilder();
+    private int pos;
+    private int depth;
+
+    private PythonLiteralParser(String text, JsonGenerator out) {
+        this.text = text;
+        this.length = text.length();
+        this.out = out;
+    }
+
+    public static void transcode(String text, JsonGenerator generator) throws IOException {
+        PythonLiteralParser parser = new PythonLiteralParser(text, generator);
+        parser.value();
+        parser.skipWhitespace();
+        if (parser.pos < parser.length) {
+            throw parser.error("Unexpected trailing content");
+        }
+    }
+
+    private void value() throws IOException {
+        skipWhitespace();
+        if (pos >= length) {
+            throw error("Unexpected end of input");
+        }
+
+        char c = text.charAt(pos);
+        switch (c) {
+            case '{' -> braces();
+            case '[' -> sequence(']');
+            case '(' -> sequence(')');
+            case '\'', '"' -> out.writeString(string());
+            case '<' -> out.writeString(angleBracketed());
+            default -> {
+                if (isNumberStart()) {
+                    number();
+                } else if (isStringPrefix()) {
+                    out.writeString(string());
+                } else if (isIdentifierStart(c)) {
+                    identifierValue();
+                } else {
+                    throw error("Unexpected character '" + c + "'");
+                }
+            }
+        }
+    }
+
+    /**
+     * '{' opens a dict, or a set when the first item is not followed by ':' or '='.
+     * Only the first key is parsed twice in the set case.
+     */
+    private void braces() throws IOException {
+        enter();
+        pos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            out.writeStartObject();
+            out.writeEndObject();
+            leave();
+            return;
+        }
+
+        int first = pos;
+        String key = key();
+        skipWhitespace();
+        if (peek() != ':' && peek() != '=') {
+            pos = first;
+            out.writeStartArray();
+            elements('}');
+            out.writeEndArray();
+            leave();
+            return;
+        }
+
+        out.writeStartObject();
+        while (true) {
+            pos++;
+            out.writeFieldName(key);
+            value();
+            skipWhitespace();
+            if (!separator('}')) {
+                break;
+            }
+            key = key();
+            skipWhitespace();
+            if (peek() != ':' && peek() != '=') {
+                throw error("Expected ':' after dict key");
+            }
+        }
+        out.writeEndObject();
+        leave();
+    }
+
+    private void sequence(char close) throws IOException {
+        enter();
+        pos++;
+        out.writeStartArray();
+        elements(close);
+        out.writeEndArray();
+        leave();
+    }
+
+    private void elements(char close) throws IOException {
+        skipWhitespace();
+        if (peek() == close) {
+            pos++;
+            return;
+        }
+        do {
+            value();
+            skipWhitespace();
+        } while (separator(close));
+    }
+
+    /**
+     * Consumes ',' or the closing character. Returns true when another item follows.
+     */
+    private boolean separator(char close) throws IOException {
+        char c = peek();
+        if (c == ',') {
+            pos++;
+            skipWhitespace();
+            if (peek() == close) {
+                pos++;
+                return false;
+            }
+            return true;
+        }
+        if (c == close) {
+            pos++;
+            return false;
+        }
+        throw error("Expected ',' or '" + close + "'");
+    }
+
+    private String key() throws IOException {
+        skipWhitespace();
+        char c = peek();
+        if (c == '\'' || c == '"' || isStringPrefix()) {
+            return string();
+        }
+        if (isNumberStart()) {
+            int start = pos;
+            skipNumber();
+            return text.substring(start, pos);
+        }
+        if (isIdentifierStart(c)) {
+            return identifier();
+        }
+        if (c == '(') {
+            return balanced('(', ')');
+        }
+        throw error("Unsupported dict key");
+    }
+
+    private void identifierValue() throws IOException {
+        String name = identifier();
+        switch (name) {
+            case "True" -> out.writeBoolean(true);
+            case "False" -> out.writeBoolean(false);
+            case "None", "nan", "inf", "NaN", "Infinity" -> out.writeNull();
+            default -> {
+                skipWhitespace();
+                if (peek() == '(') {
+                    call(name);
+                } else {
+                    out.writeString(name);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code Name(a=1, b=2)} becomes an object, {@code Name(x)} becomes x and {@code Name(x, y)} an array.
+     */
+    private void call(String name) throws IOException {
+        enter();
+        pos++;
+        skipWhitespace();
+
+        if (peek() == ')') {
+            pos++;
+            if (name.endsWith("dict")) {
+                out.writeStartObject();
+                out.writeEndObject();
+            } else if (name.endsWith("set") || name.endsWith("list") || name.endsWith("tuple") || name.endsWith("array")) {
+                out.writeStartArray();
+                out.writeEndArray();
+            } else {
+                out.writeNull();
+            }
+        } else if (isKeywordArgument()) {
+            out.writeStartObject();
+            do {
+                skipWhitespace();
+                out.writeFieldName(identifier());
+                skipWhitespace();
+                if (peek() != '=') {
+                    throw error("Expected '=' in keyword argument");
+                }
+                pos++;
+                value();
+                skipWhitespace();
+            } while (separator(')'));
+            out.writeEndObject();
+        } else if (hasTopLevelComma()) {
+            out.writeStartArray();
+            elements(')');
+            out.writeEndArray();
+        } else {
+            value();
+            skipWhitespace();
+            if (peek() != ')') {
+                throw error("Expected ')'");
+            }
+            pos++;
+        }
+        leave();
+    }
+
+    private boolean isKeywordArgument() {
+        int start = pos;
+        try {
+            if (!isIdentifierStart(peek())) {
+                return false;
+            }
+            identifier();
+            skipWhitespace();
+            return peek() == '=' && (pos + 1 >= length || text.charAt(pos + 1) != '=');
+        } finally {
+            pos = start;
+        }
+    }
+
+    /**
+     * Looks ahead from just inside '(' for a ',' at the same nesting level before the matching ')'.
+     */
+    private boolean hasTopLevelComma() throws IOException {
+        int start = pos;
+        int nesting = 0;
+        try {
+            while (pos < length) {
+                char c = text.charAt(pos);
+                if (c == '\'' || c == '"' || isStringPrefix()) {
+                    string();
+                    continue;
+                }
+                if (c == '(' || c == '[' || c == '{') {
+                    nesting++;
+                } else if (c == ')' || c == ']' || c == '}') {
+                    if (nesting == 0) {
+                        return false;
+                    }
+                    nesting--;
+                } else if (c == ',' && nesting == 0) {
+                    return true;
+                }
+                pos++;
+            }
+            return false;
+        } finally {
+            pos = start;
+        }
+    }
+
+    private String string() throws IOException {
+        boolean raw = false;
+        while (pos < length && "rRbBuUfF".indexOf(text.charAt(pos)) >= 0) {
+            raw |= text.charAt(pos) == 'r' || text.charAt(pos) == 'R';
+            pos++;
+        }
+
+        char quote = text.charAt(pos);
+        boolean triple = text.startsWith(String.valueOf(quote).repeat(3), pos);
+        pos += triple ? 3 : 1;
+
+        buffer.setLength(0);
+        while (true) {
+            if (pos >= length) {
+                throw error("Unterminated string");
+            }
+            char c = text.charAt(pos);
+            if (c == quote && (!triple || text.startsWith(String.valueOf(quote).repeat(3), pos))) {
+                pos += triple ? 3 : 1;
+                return buffer.toString();
+            }
+            if (c == '\\' && pos + 1 < length) {
+                if (raw) {
+                    buffer.append(c).append(text.charAt(pos + 1));
+                    pos += 2;
+                } else {
+                    escape();
+                }
+                continue;
+            }
+            buffer.append(c);
+            pos++;
+        }
+    }
+
+    private void escape() throws IOException {
+        char c = text.charAt(pos + 1);
+        pos += 2;
+        switch (c) {
+            case 'n' -> buffer.append('\n');
+            case 't' -> buffer.append('\t');
+            case 'r' -> buffer.append('\r');
+            case 'a' -> buffer.append('\u0007');
+            case 'b' -> buffer.append('\b');
+            case 'f' -> buffer.append('\f');
+            case 'v' -> buffer.append('\u000B');
+            case '\\', '\'', '"' -> buffer.append(c);
+            case '\n' -> {
+            }
+            case 'x' -> buffer.appendCodePoint(hex(2));
+            case 'u' -> buffer.appendCodePoint(hex(4));
+            case 'U' -> buffer.appendCodePoint(hex(8));
+            default -> {
+                if (c >= '0' && c <= '7') {
+                    int value = c - '0';
+                    for (int i = 0; i < 2 && pos < length && text.charAt(pos) >= '0' && text.charAt(pos) <= '7'; i++) {
+                        value = value * 8 + (text.charAt(pos++) - '0');
+                    }
+                    buffer.append((char) value);
+                } else {
+                    buffer.append('\\').append(c);
+                }
+            }
+        }
+    }
+
+    private int hex(int digits) throws IOException {
+        if (pos + digits > length) {
+            throw error("Truncated escape sequence");
+        }
+        try {
+            int value = Integer.parseUnsignedInt(text, pos, pos + digits, 16);
+            if (!Character.isValidCodePoint(value)) {
+                throw error("Invalid code point");
+            }
+            pos += digits;
+            return value;
+        } catch (NumberFormatException e) {
+            throw error("Invalid escape sequence");
+        }
+    }
+
+    private void number() throws IOException {
+        int start = pos;
+        boolean negative = peek() == '-';
+        if (peek() == '-' || peek() == '+') {
+            pos++;
+        }
+        if (isIdentifierStart(peek())) {
+            String name = identifier();
+            if (!name.equals("inf") && !name.equals("nan")) {
+                throw error("Invalid number");
+            }
+            out.writeNull();
+            return;
+        }
+
+        boolean decimal = skipNumber();
+        String literal = text.substring(start, pos).replace("_", "");
+        if (decimal) {
+            out.writeNumber(Double.parseDouble(literal));
+        } else if (literal.length() - (negative ? 1 : 0) <= 18) {
+            out.writeNumber(Long.parseLong(literal));
+        } else {
+            out.writeNumber(new BigInteger(literal));
+        }
+    }
+
+    /**
+     * Advances over a numeric literal and returns true when it has a fraction or exponent.
+     */
+    private boolean skipNumber() {
+        boolean decimal = false;
+        if (peek() == '-' || peek() == '+') {
+            pos++;
+        }
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+            } else if ((c == '-' || c == '+') && (text.charAt(pos - 1) == 'e' || text.charAt(pos - 1) == 'E')) {
+                // exponent sign
+            } else if (!Character.isDigit(c) && c != '_') {
+                break;
+            }
+            pos++;
+        }
+        return decimal;
+    }
+
+    private String identifier() {
+        int start = pos;
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '.') {
+                break;
+            }
+            pos++;
+        }
+        return text.substring(start, pos);
+    }
+
+    private String angleBracketed() throws IOException {
+        int end = text.indexOf('>', pos);
+        if (end < 0) {
+            throw error("Unterminated '<'");
+        }
+        String content = text.substring(pos + 1, end);
+        pos = end + 1;
+        return content;
+    }
+
+    private String balanced(char open, char close) throws IOException {
+        int start = pos;
+        int nesting = 0;
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (c == '\'' || c == '"') {
+                string();
+                continue;
+            }
+            if (c == open) {
+                nesting++;
+            } else if (c == close && --nesting == 0) {
+                pos++;
+                return text.substring(start, pos);
+            }
+            pos++;
+        }
+        throw error("Unbalanced '" + open + "'");
+    }
+
+    private boolean isNumberStart() {
+        char c = peek();
+        if (Character.isDigit(c)) {
+            return true;
+        }
+        if (c == '.' || c == '-' || c == '+') {
+            char next = pos + 1 < length ? text.charAt(pos + 1) : 0;
+            return Character.isDigit(next) || (c != '.' && (next == 'i' || next == 'n' || next == '.'));
+        }
+        return false;
+    }
+
+    private boolean isStringPrefix() {
+        int i = pos;
+        while (i < length && i - pos < 2 && "rRbBuUfF".indexOf(text.charAt(i)) >= 0) {
+            i++;
+        }
+        return i > pos && i < length && (text.charAt(i) == '\'' || text.charAt(i) == '"');
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private void skipWhitespace() {
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+            } else if (c == '\\' && pos + 1 < length && text.charAt(pos + 1) == '\n') {
+                pos += 2;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private char peek() {
+        return pos < length ? text.charAt(pos) : 0;
+    }
+
+    private void enter() throws IOException {
+        if (++depth > MAX_DEPTH) {
+            throw error("Nesting too deep");
+        }
+    }
+
+    private void leave() {
+        depth--;
+    }
+
+    private IOException error(String message) {
+        return new SyntaxException(message + " at position " + pos);
+    }
+
+    public static final class SyntaxException extends IOException {
+        public SyntaxException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.videoservice.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SegmentedStringWriter;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Copies a JSON object or array to compact text while the body is parsed; the copy validates it.
+ * Works for any input format (JSON, CBOR, Smile), the output is always JSON text.
+ * Values sent as a JSON string are kept verbatim.
+ */
+public class RawJsonDeserializer extends JsonDeserializer<String> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return (String) context.handleUnexpectedToken(String.class, parser);
+        }
+
+        SegmentedStringWriter writer = new SegmentedStringWriter(JSON_FACTORY._getBufferRecycler());
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.getAndClear();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.videoservice.websocket;
+
+import com.example.videoservice.dto.VideoStatusView;
+import com.example.videoservice.dto.VideoSubscriptionCommand;
+import com.example.videoservice.repository.VideoRepository;
+import com.example.videoservice.service.ReplicaReadPolicy;
+import com.example.videoservice.service.VideoStatusHub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One socket per user session for the whole library. The client sends
+ * {@code {"op":"subscribe","videoIds":[...]}} or {@code "unsubscribe"}; only videos owned by the
+ * X-User-ID of the handshake are accepted. Status frames come from {@link VideoStatusHub}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VideoStatusWebSocketHandler extends TextWebSocketHandler {
+
+    public static final String USER_ID = "userId";
+    public static final String BINARY = "binaryFrames";
+
+    private final VideoStatusHub videoStatusHub;
+    private final VideoRepository videoRepository;
+    private final ReplicaReadPolicy replicaReadPolicy;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, VideoStatusHub.Connection> connections = new ConcurrentHashMap<>();
+
+    @Value("${app.ws.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${app.ws.send-buffer-bytes:65536}")
+    private int sendBufferBytes;
+
+    @Value("${app.ws.max-subscriptions:5000}")
+    private int maxSubscriptions;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession bounded = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, sendBufferBytes,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+        String userId = (String) session.getAttributes().get(USER_ID);
+        boolean binary = Boolean.TRUE.equals(session.getAttributes().get(BINARY));
+
+        VideoStatusHub.Connection connection = new VideoStatusHub.Connection(bounded, userId, binary);
+        connections.put(session.getId(), connection);
+        videoStatusHub.connect(connection);
+        log.debug("🔌 Status WebSocket {} opened for user {} ({} frames)", session.getId(), userId, binary ? "binary" : "json");
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        VideoStatusHub.Connection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+
+        VideoSubscriptionCommand command;
+        try {
+            command = objectMapper.readValue(message.getPayload(), VideoSubscriptionCommand.class);
+        } catch (Exception e) {
+            reply(connection, Map.of("type", "error", "message", "Malformed command"));
+            return;
+        }
+
+        List<Long> videoIds = command.getVideoIds() != null ? command.getVideoIds() : List.of();
+        switch (command.getOp() != null ? command.getOp() : "") {
+            case "subscribe" -> subscribe(connection, videoIds);
+            case "unsubscribe" -> {
+                videoIds.forEach(videoId -> videoStatusHub.unsubscribe(connection, videoId));
+                reply(connection, Map.of("type", "unsubscribed", "videoIds", videoIds));
+            }
+            default -> reply(connection, Map.of("type", "error", "message", "Unknown op: " + command.getOp()));
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("🔌 Status WebSocket {} transport error: {}", session.getId(), exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        VideoStatusHub.Connection connection = connections.remove(session.getId());
+        if (connection != null) {
+            videoStatusHub.disconnect(connection);
+        }
+    }
+
+    private void subscribe(VideoStatusHub.Connection connection, List<Long> videoIds) throws Exception {
+        int room = maxSubscriptions - videoStatusHub.subscriptionCount(connection);
+        Set<Long> requested = new HashSet<>(videoIds);
+        if (requested.size() > room) {
+            reply(connection, Map.of("type", "error",
+                    "message", "Subscription limit of " + maxSubscriptions + " videos reached"));
+            return;
+        }
+
+        Set<Long> rejected = new HashSet<>(requested);
+        List<VideoStatusView> owned = requested.isEmpty()
+                ? List.of()
+                : replicaReadPolicy.read(requested,
+                        () -> videoRepository.findStatusViewsByIdInAndUserId(requested, connection.getUserId()));
+
+        for (VideoStatusView status : owned) {
+            rejected.remove(status.getVideoId());
+            videoStatusHub.subscribe(connection, status.toEvent());
+        }
+
+        Map<String, Object> ack = new HashMap<>();
+        ack.put("type", "subscribed");
+        ack.put("videoIds", owned.stream().map(VideoStatusView::getVideoId).toList());
+        ack.put("rejected", rejected);
+        reply(connection, ack);
+    }
+
+    private void reply(VideoStatusHub.Connection connection, Map<String, ?> message) throws Exception {
+        connection.getSession().sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+    }
+}
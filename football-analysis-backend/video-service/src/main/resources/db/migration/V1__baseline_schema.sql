@@ -0,0 +1,64 @@
+-- Schema as previously produced by data.sql plus ddl-auto=update. Every statement is idempotent so
+-- databases created that way are brought to the same shape instead of failing (baseline-version=0).
+
+CREATE TABLE IF NOT EXISTS videos (
+    id                      BIGSERIAL PRIMARY KEY,
+    user_id                 VARCHAR(255) NOT NULL,
+    title                   VARCHAR(500),
+    description             TEXT,
+    original_file_key       VARCHAR(500) NOT NULL,
+    processed_file_key      VARCHAR(500),
+    file_size               BIGINT,
+    duration_seconds        INTEGER,
+    processing_status       VARCHAR(50) NOT NULL DEFAULT 'UPLOADED',
+    processing_progress     INTEGER DEFAULT 0,
+    processing_job_id       VARCHAR(255),
+    ai_analysis_completed   BOOLEAN DEFAULT FALSE,
+    created_at              TIMESTAMP DEFAULT NOW(),
+    updated_at              TIMESTAMP DEFAULT NOW()
+);
+
+ALTER TABLE videos
+    ADD COLUMN IF NOT EXISTS file_path VARCHAR(500),
+    ADD COLUMN IF NOT EXISTS content_type VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS processing_error VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS processing_started_at TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS processing_completed_at TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS estimated_completion_at TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS completed_at TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS current_task VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS output_key VARCHAR(500),
+    ADD COLUMN IF NOT EXISTS status_version BIGINT NOT NULL DEFAULT 0,
+    -- Legacy analytics columns, drained into video_analytics_payloads by AnalyticsMigrationService
+    ADD COLUMN IF NOT EXISTS analytics_data TEXT,
+    ADD COLUMN IF NOT EXISTS analytics_blob BYTEA;
+
+CREATE TABLE IF NOT EXISTS video_analytics (
+    id                          BIGSERIAL PRIMARY KEY,
+    video_id                    BIGINT NOT NULL REFERENCES videos(id) ON DELETE CASCADE,
+    analysis_type               VARCHAR(100) NOT NULL,
+    team1_possession_percentage DECIMAL(5,2),
+    team2_possession_percentage DECIMAL(5,2),
+    total_passes                INTEGER,
+    avg_player_speed            DECIMAL(8,2),
+    max_player_speed            DECIMAL(8,2),
+    analysis_data               JSONB,
+    created_at                  TIMESTAMP DEFAULT NOW()
+);
+
+ALTER TABLE video_analytics
+    ADD COLUMN IF NOT EXISTS team1_passes INTEGER,
+    ADD COLUMN IF NOT EXISTS team2_passes INTEGER,
+    ADD COLUMN IF NOT EXISTS total_distance_covered DOUBLE PRECISION,
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT NOW();
+
+-- Raw analytics documents, one per video, kept out of the hot videos row
+CREATE TABLE IF NOT EXISTS video_analytics_payloads (
+    video_id     BIGINT PRIMARY KEY REFERENCES videos(id) ON DELETE CASCADE,
+    payload_blob BYTEA,
+    payload_text TEXT,
+    updated_at   TIMESTAMP DEFAULT NOW()
+);
+
+-- payload_blob is already zstd-compressed, skip pglz when it is toasted
+ALTER TABLE video_analytics_payloads ALTER COLUMN payload_blob SET STORAGE EXTERNAL;
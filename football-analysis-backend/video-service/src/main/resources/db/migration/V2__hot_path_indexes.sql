@@ -0,0 +1,29 @@
+-- Indexes for the repository queries on the request path. None of them covers processing_progress,
+-- current_task or updated_at, so progress callbacks stay heap-only (HOT) updates.
+
+-- Library listing: keyset pages on (created_at, id) within one user
+CREATE INDEX IF NOT EXISTS idx_videos_user_created_id
+    ON videos (user_id, created_at DESC, id DESC);
+
+-- Videos still waiting on or running in the AI service, per user. Only changes when the status does.
+CREATE INDEX IF NOT EXISTS idx_videos_active_by_user
+    ON videos (user_id)
+    WHERE processing_status IN ('QUEUED', 'PROCESSING');
+
+-- Lookup of a video by the AI service's job id; most rows never get one
+CREATE INDEX IF NOT EXISTS idx_videos_processing_job_id
+    ON videos (processing_job_id)
+    WHERE processing_job_id IS NOT NULL;
+
+-- Legacy analytics still to be drained; empties out as the migration runs
+CREATE INDEX IF NOT EXISTS idx_videos_legacy_analytics
+    ON videos (id)
+    WHERE analytics_blob IS NOT NULL OR analytics_data IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_analytics_payloads_text
+    ON video_analytics_payloads (video_id)
+    WHERE payload_blob IS NULL AND payload_text IS NOT NULL;
+
+-- Every video_analytics query filters by video, most also by type; a type-only index would match half the table
+CREATE INDEX IF NOT EXISTS idx_video_analytics_video_type
+    ON video_analytics (video_id, analysis_type);
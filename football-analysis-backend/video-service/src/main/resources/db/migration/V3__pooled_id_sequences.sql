@@ -0,0 +1,4 @@
+-- Hibernate reserves ids 50 at a time (pooled-lo) so inserts can be batched; IDENTITY disabled batching.
+-- The BIGSERIAL defaults keep working: a plain nextval is the start of a block nobody else will use.
+ALTER SEQUENCE videos_id_seq INCREMENT BY 50;
+ALTER SEQUENCE video_analytics_id_seq INCREMENT BY 50;
@@ -0,0 +1,14 @@
+-- Callbacks the writer could not apply even on their own. They are parked here so the journal checkpoint can
+-- move on; no foreign key, since a deleted video is one way a callback becomes unappliable.
+CREATE TABLE IF NOT EXISTS callback_dead_letters (
+    id               BIGSERIAL PRIMARY KEY,
+    video_id         BIGINT NOT NULL,
+    status           VARCHAR(20) NOT NULL,
+    progress         INTEGER NOT NULL,
+    journal_position BIGINT NOT NULL,
+    record           BYTEA NOT NULL,
+    error            TEXT,
+    created_at       TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_callback_dead_letters_video ON callback_dead_letters (video_id);
@@ -0,0 +1,166 @@
+package com.example.videoservice.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting the analytics rows of a batch of completed videos, the way Hibernate issues them before and
+ * after the move from IDENTITY to pooled sequences: one INSERT ... RETURNING round-trip per row, against
+ * ids reserved 50 at a time and a single JDBC batch, with and without reWriteBatchedInserts.
+ * Starts PostgreSQL with Testcontainers, so Docker is required:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=AnalyticsInsertBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsInsertBenchmark {
+
+    private static final String INSERT_RETURNING_SQL =
+            "INSERT INTO video_analytics (video_id, analysis_type, total_passes, avg_player_speed, analysis_data) " +
+            "VALUES (?, ?, ?, ?, ?::jsonb) RETURNING id";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO video_analytics (id, video_id, analysis_type, total_passes, avg_player_speed, analysis_data) " +
+            "VALUES (?, ?, ?, ?, ?, ?::jsonb)";
+
+    private static final String[] TYPES = {"TEAM_STATISTICS", "SPEED_ANALYSIS"};
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param({"10", "100"})
+    public int videos;
+
+    @Param({"false", "true"})
+    public boolean reWriteBatchedInserts;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private long[] videoIds;
+    private long nextId;
+    private long blockEnd;
+
+    @Setup
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        Properties properties = new Properties();
+        properties.setProperty("user", postgres.getUsername());
+        properties.setProperty("password", postgres.getPassword());
+        properties.setProperty("reWriteBatchedInserts", Boolean.toString(reWriteBatchedInserts));
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), properties);
+        connection.setAutoCommit(false);
+
+        videoIds = new long[videos];
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO videos (user_id, title, original_file_key, file_path, processing_status) " +
+                "VALUES ('bench', 'Match', 'key', 'key', 'COMPLETED') RETURNING id")) {
+            for (int i = 0; i < videos; i++) {
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    videoIds[i] = rs.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM video_analytics");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    /** GenerationType.IDENTITY: Hibernate cannot batch and needs each generated key back. */
+    @Benchmark
+    public long identityPerRow() throws SQLException {
+        long last = 0;
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_RETURNING_SQL)) {
+            for (long videoId : videoIds) {
+                for (String type : TYPES) {
+                    bind(ps, 1, videoId, type);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                        last = rs.getLong(1);
+                    }
+                }
+            }
+        }
+        connection.commit();
+        return last;
+    }
+
+    /** Pooled-lo sequence: ids come from one nextval per 50 rows, the rows go out as one batch. */
+    @Benchmark
+    public int[] sequenceBatched() throws SQLException {
+        int[] counts;
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+            for (long videoId : videoIds) {
+                for (String type : TYPES) {
+                    ps.setLong(1, nextId());
+                    bind(ps, 2, videoId, type);
+                    ps.addBatch();
+                }
+            }
+            counts = ps.executeBatch();
+        }
+        connection.commit();
+        return counts;
+    }
+
+    private long nextId() throws SQLException {
+        if (nextId == blockEnd) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT nextval('video_analytics_id_seq')")) {
+                rs.next();
+                nextId = rs.getLong(1);
+                blockEnd = nextId + ALLOCATION_SIZE;
+            }
+        }
+        return nextId++;
+    }
+
+    private static void bind(PreparedStatement ps, int first, long videoId, String type) throws SQLException {
+        ps.setLong(first, videoId);
+        ps.setString(first + 1, type);
+        ps.setInt(first + 2, 412);
+        ps.setDouble(first + 3, 6.8);
+        ps.setString(first + 4, "{\"team1_possession\": 54.2, \"team2_possession\": 45.8}");
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.videoservice.benchmark;
+
+import com.example.videoservice.dto.StoredAnalytics;
+import com.example.videoservice.util.AnalyticsCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the status response body with stored analytics: the old decode-to-Map-and-reserialize path
+ * against streaming passthrough (Smile blob transcoded into the generator, JSON text via writeRawValue).
+ * Run with {@code -prof gc} to compare allocation per operation:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.videoservice.benchmark.AnalyticsResponseBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsResponseBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    @Param({"200", "5000"})
+    public int passes;
+
+    private ObjectMapper objectMapper;
+    private String json;
+    private byte[] blob;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        Object analytics = CallbackPayloadBenchmark.completionCallback(passes).get("analytics");
+        json = objectMapper.writeValueAsString(analytics);
+        blob = AnalyticsCodec.encode(json);
+        System.out.printf("%n%d passes: %d bytes JSON, %d bytes blob%n", passes, json.length(), blob.length);
+    }
+
+    @Benchmark
+    public byte[] jsonTextViaMap() throws IOException {
+        return objectMapper.writeValueAsBytes(response(objectMapper.readValue(json, MAP_TYPE)));
+    }
+
+    @Benchmark
+    public byte[] jsonTextRaw() throws IOException {
+        return objectMapper.writeValueAsBytes(response(StoredAnalytics.ofJson(json)));
+    }
+
+    @Benchmark
+    public byte[] blobViaMap() throws IOException {
+        return objectMapper.writeValueAsBytes(response(AnalyticsCodec.readMap(blob)));
+    }
+
+    @Benchmark
+    public byte[] blobStreamed() throws IOException {
+        return objectMapper.writeValueAsBytes(response(StoredAnalytics.ofBlob(blob)));
+    }
+
+    private static Map<String, Object> response(Object analytics) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "completed");
+        response.put("progress", 100);
+        response.put("jobId", "3c1f9a7e-5b7d-4f0e-9a51-2f1d7d0c8e11");
+        response.put("currentTask", "Video processing completed successfully!");
+        response.put("outputKey", "processed/user/42_processed_1700000000.avi");
+        response.put("analytics", analytics);
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AnalyticsResponseBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.videoservice.benchmark;
+
+import com.example.videoservice.dto.ai.AICallbackRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Parse cost of a completion callback per wire format, through the same DTO binding as the controller.
+ * Bytes over the wire are printed once per trial. Run with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.videoservice.benchmark.CallbackPayloadBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallbackPayloadBenchmark {
+
+    @Param({"json", "json+gzip", "json+zstd", "cbor", "smile", "smile+zstd"})
+    public String encoding;
+
+    @Param({"200", "5000"})
+    public int passes;
+
+    private ObjectMapper mapper;
+    private byte[] wire;
+
+    @Setup
+    public void setUp() throws IOException {
+        Map<String, Object> callback = completionCallback(passes);
+
+        String format = encoding.contains("+") ? encoding.substring(0, encoding.indexOf('+')) : encoding;
+        mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new ObjectMapper();
+        };
+
+        byte[] encoded = mapper.writeValueAsBytes(callback);
+        wire = encoding.endsWith("+gzip") ? gzip(encoded) : encoding.endsWith("+zstd") ? zstd(encoded) : encoded;
+
+        System.out.printf("%n%s with %d passes: %d bytes over the wire%n", encoding, passes, wire.length);
+    }
+
+    @Benchmark
+    public AICallbackRequest decode() throws IOException {
+        try (InputStream in = open(wire)) {
+            return mapper.readValue(in, AICallbackRequest.class);
+        }
+    }
+
+    private InputStream open(byte[] bytes) throws IOException {
+        InputStream in = new ByteArrayInputStream(bytes);
+        if (encoding.endsWith("+gzip")) {
+            return new GZIPInputStream(in);
+        }
+        if (encoding.endsWith("+zstd")) {
+            return new ZstdInputStream(in);
+        }
+        return in;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] zstd(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream zstd = new ZstdOutputStream(out)) {
+            zstd.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    static Map<String, Object> completionCallback(int passes) {
+        Map<String, Object> teamStats = new LinkedHashMap<>();
+        teamStats.put("team_1_possession", 58.3);
+        teamStats.put("team_2_possession", 41.7);
+        teamStats.put("total_passes", passes);
+        teamStats.put("team_1_passes", passes * 3 / 5);
+        teamStats.put("team_2_passes", passes * 2 / 5);
+        teamStats.put("pass_accuracy", "81.4%");
+
+        List<Map<String, Object>> passList = new ArrayList<>(passes);
+        for (int i = 0; i < passes; i++) {
+            Map<String, Object> pass = new HashMap<>();
+            pass.put("frame", i * 12);
+            pass.put("from_player", i % 11 + 1);
+            pass.put("to_player", (i + 3) % 11 + 1);
+            pass.put("team", i % 2 + 1);
+            pass.put("distance", 7.5 + (i % 20));
+            pass.put("successful", i % 5 != 0);
+            passList.add(pass);
+        }
+
+        Map<String, Object> analytics = new LinkedHashMap<>();
+        analytics.put("total_frames", 2700);
+        analytics.put("duration_seconds", 112.5);
+        analytics.put("players_detected", 24);
+        analytics.put("ball_detected", true);
+        analytics.put("team_stats", teamStats);
+        analytics.put("match_summary", Map.of(
+                "total_distance_covered", 10234.2,
+                "average_speed", 14.8,
+                "max_speed", 31.2,
+                "ball_possession_changes", 87,
+                "total_sprints", 42));
+        analytics.put("passes", passList);
+
+        Map<String, Object> callback = new LinkedHashMap<>();
+        callback.put("video_id", "42");
+        callback.put("job_id", "3c1f9a7e-5b7d-4f0e-9a51-2f1d7d0c8e11");
+        callback.put("status", "completed");
+        callback.put("progress", 100);
+        callback.put("message", "Video processing completed successfully!");
+        callback.put("output_key", "processed/user/42_processed_1700000000.avi");
+        callback.put("analytics", analytics);
+        return callback;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CallbackPayloadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.videoservice.benchmark;
+
+import com.example.videoservice.dto.VideoListItem;
+import com.example.videoservice.model.Video;
+import com.example.videoservice.repository.VideoRepository;
+import com.example.videoservice.service.LibraryCountListener;
+import com.example.videoservice.service.VideoStatusCacheListener;
+import com.example.videoservice.util.LibraryCursor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of a 10k-video library, queried and serialized the way GET /api/videos did it before and after
+ * the listing moved to projections: a {@code Page<Video>} of full entities with offset and count query,
+ * against {@link VideoListItem} rows sought on (created_at, id). Setup prints the body size of each page
+ * built from the seeded rows. Starts PostgreSQL with Testcontainers, so Docker is required:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=VideoListingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VideoListingBenchmark {
+
+    private static final String USER_ID = "3f6c2a9e-8d41-4b7a-9c55-0e2d7f1a6b3c";
+    private static final int LIBRARY_SIZE = 10_000;
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    @Param({"0", "50"})
+    public int page;
+
+    private PostgreSQLContainer<?> postgres;
+    private SingleConnectionDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private VideoRepository videoRepository;
+    private LegacyVideoRepository legacyVideoRepository;
+    private ObjectMapper objectMapper;
+    private LibraryCursor cursor;
+
+    /**
+     * The entity page query GET /api/videos ran before the projection.
+     */
+    public interface LegacyVideoRepository extends Repository<Video, Long> {
+
+        Page<Video> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
+    }
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        dataSource = new SingleConnectionDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword(), true);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        seed(new JdbcTemplate(dataSource));
+
+        entityManagerFactory = entityManagerFactory(dataSource);
+        entityManager = entityManagerFactory.createEntityManager();
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+        videoRepository = repositories.getRepository(VideoRepository.class);
+        legacyVideoRepository = repositories.getRepository(LegacyVideoRepository.class);
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        // The cursor a client holds after paging to the same offset the entity query skips
+        if (page > 0) {
+            Object[] last = entityManager.createQuery("SELECT v.createdAt, v.id FROM Video v WHERE v.userId = :userId " +
+                            "ORDER BY v.createdAt DESC, v.id DESC", Object[].class)
+                    .setParameter("userId", USER_ID)
+                    .setFirstResult(page * pageSize - 1)
+                    .setMaxResults(1)
+                    .getSingleResult();
+            cursor = LibraryCursor.after((LocalDateTime) last[0], (Long) last[1]);
+        }
+
+        System.out.printf("%npage %d of %d: %d bytes as entities, %d bytes as list items%n", page, pageSize,
+                entityPage().length, listItemPage().length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+        dataSource.destroy();
+        postgres.stop();
+    }
+
+    /** Offset page of full entities plus the count query Spring Data issues for every Page. */
+    @Benchmark
+    public byte[] entityPage() throws JsonProcessingException {
+        entityManager.clear();
+        Page<Video> videos = legacyVideoRepository.findByUserIdOrderByCreatedAtDesc(USER_ID,
+                PageRequest.of(page, pageSize, Sort.by("createdAt").descending()));
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("videos", videos.getContent());
+        body.put("totalElements", videos.getTotalElements());
+        body.put("totalPages", videos.getTotalPages());
+        body.put("currentPage", page);
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    /** Keyset page of projected rows; one extra row tells whether there is a next page, no count. */
+    @Benchmark
+    public byte[] listItemPage() throws JsonProcessingException {
+        entityManager.clear();
+        Pageable limit = Pageable.ofSize(pageSize + 1);
+        List<VideoListItem> rows = cursor == null
+                ? videoRepository.findFirstListItems(USER_ID, limit)
+                : videoRepository.findListItemsAfter(USER_ID, cursor.createdAt(), cursor.id(), limit);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<VideoListItem> items = hasMore ? rows.subList(0, pageSize) : rows;
+        VideoListItem last = items.get(items.size() - 1);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("videos", items);
+        body.put("nextCursor", hasMore ? LibraryCursor.after(last.getCreatedAt(), last.getId()).encode() : null);
+        body.put("hasMore", hasMore);
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    /**
+     * The benchmarked library of completed matches, plus other users' videos so the user filter is selective.
+     */
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO videos (user_id, title, description, original_file_key, file_path, " +
+                "processed_file_key, file_size, content_type, duration_seconds, processing_status, processing_progress, " +
+                "processing_job_id, ai_analysis_completed, current_task, created_at, updated_at, processing_started_at, " +
+                "processing_completed_at, completed_at, status_version) " +
+                "SELECT CASE WHEN n <= ? THEN ? ELSE 'user-' || (n % 200) END, 'Match ' || n || ' - Second Half', " +
+                "repeat('Full match footage recorded from the main stand, both halves, with extra time. ', 4), " +
+                "'videos/' || n || '/original.mp4', 'videos/' || n || '/original.mp4', " +
+                "'processed/' || n || '/annotated.mp4', 734003200, 'video/mp4', 2820, 'COMPLETED', 100, " +
+                "'job-' || n, TRUE, 'Analysis complete', t, t, t, t, t, 12 " +
+                "FROM generate_series(1, ?) n, LATERAL (SELECT now() - n * interval '1 minute' AS t) created",
+                LIBRARY_SIZE, USER_ID, LIBRARY_SIZE * 3);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+        // The entity listeners are Spring components; none of them fires on reads
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("videoStatusCacheListener", new VideoStatusCacheListener(null));
+        beans.registerSingleton("libraryCountListener", new LibraryCountListener(null));
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.example.videoservice.model");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beans)));
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+}
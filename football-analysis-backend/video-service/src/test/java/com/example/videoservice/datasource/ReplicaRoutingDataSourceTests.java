@@ -0,0 +1,102 @@
+package com.example.videoservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing against two independent PostgreSQL instances, each holding a row that names it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingDataSourceTests {
+
+    @Container
+    private static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    private static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static ReplicaRoutingDataSource routing;
+    private static ReplicaLagMonitor monitor;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate readWrite;
+    private static TransactionTemplate readOnly;
+
+    @BeforeAll
+    static void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        routing = new ReplicaRoutingDataSource(pool(PRIMARY, "test-primary"), List.of(pool(REPLICA, "test-replica")),
+                meterRegistry);
+        routing.afterPropertiesSet();
+        monitor = new ReplicaLagMonitor(routing, Duration.ofSeconds(5), meterRegistry);
+
+        for (PostgreSQLContainer<?> server : List.of(PRIMARY, REPLICA)) {
+            try (HikariDataSource setup = pool(server, "setup")) {
+                new JdbcTemplate(setup).execute("CREATE TABLE node AS SELECT '"
+                        + (server == PRIMARY ? "primary" : "replica") + "'::text AS name");
+            }
+        }
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        routing.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToHealthyReplica() {
+        monitor.check();
+
+        assertThat(node(readOnly)).isEqualTo("replica");
+        assertThat(node(readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void forcedReadsStayOnPrimary() {
+        monitor.check();
+
+        assertThat(ReplicaRoutingDataSource.onPrimary(() -> node(readOnly))).isEqualTo("primary");
+    }
+
+    @Test
+    void unhealthyReplicaFallsBackToPrimary() {
+        routing.getReplicas().get(0).update(false, Double.NaN);
+
+        assertThat(node(readOnly)).isEqualTo("primary");
+    }
+
+    private static String node(TransactionTemplate template) {
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static HikariDataSource pool(PostgreSQLContainer<?> server, String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(server.getJdbcUrl());
+        pool.setUsername(server.getUsername());
+        pool.setPassword(server.getPassword());
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.videoservice.filter;
+
+import com.github.luben.zstd.Zstd;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentEncodingFilterTests {
+
+    private static final String CALLBACK_PATH = "/api/videos/processing-callback";
+    private static final byte[] BODY = "{\"video_id\":\"42\",\"status\":\"completed\",\"progress\":100}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ContentEncodingFilter filter = new ContentEncodingFilter(1024);
+
+    @Test
+    void decodesGzipBodiesAndHidesTheEncodingHeaders() throws Exception {
+        MockHttpServletRequest request = callback("gzip", gzip(BODY));
+        AtomicReference<HttpServletRequest> seen = new AtomicReference<>();
+        AtomicReference<byte[]> body = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            seen.set((HttpServletRequest) req);
+            body.set(req.getInputStream().readAllBytes());
+        });
+
+        assertThat(body.get()).isEqualTo(BODY);
+        assertThat(seen.get().getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(seen.get().getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        assertThat(seen.get().getContentLengthLong()).isEqualTo(-1L);
+    }
+
+    @Test
+    void decodesZstdBodies() throws Exception {
+        MockHttpServletRequest request = callback("zstd", Zstd.compress(BODY));
+        AtomicReference<byte[]> body = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> body.set(req.getInputStream().readAllBytes()));
+
+        assertThat(body.get()).isEqualTo(BODY);
+    }
+
+    @Test
+    void reportsFinishedOnlyAfterEndOfStream() throws Exception {
+        MockHttpServletRequest request = callback("gzip", gzip(BODY));
+        AtomicReference<Boolean> beforeRead = new AtomicReference<>();
+        AtomicReference<Boolean> afterRead = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            beforeRead.set(in.isFinished());
+            in.readAllBytes();
+            afterRead.set(in.isFinished());
+        });
+
+        assertThat(beforeRead.get()).isFalse();
+        assertThat(afterRead.get()).isTrue();
+    }
+
+    @Test
+    void refusesAsyncReads() throws Exception {
+        MockHttpServletRequest request = callback("gzip", gzip(BODY));
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            assertThat(req.isAsyncSupported()).isFalse();
+            assertThatThrownBy(req::startAsync).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> req.getInputStream().setReadListener(null))
+                    .isInstanceOf(IllegalStateException.class);
+        });
+    }
+
+    @Test
+    void acceptsBodiesUpToTheDecodedLimit() throws Exception {
+        byte[] exactlyAtLimit = new byte[1024];
+        AtomicReference<byte[]> body = new AtomicReference<>();
+
+        filter.doFilter(callback("gzip", gzip(exactlyAtLimit)), new MockHttpServletResponse(),
+                (req, res) -> body.set(req.getInputStream().readAllBytes()));
+
+        assertThat(body.get()).hasSize(1024);
+    }
+
+    @Test
+    void failsBodiesThatInflatePastTheDecodedLimit() {
+        // A few hundred compressed bytes that inflate to 1 MB
+        MockHttpServletRequest request = callback("zstd", Zstd.compress(new byte[1024 * 1024]));
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> req.getInputStream().readAllBytes()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds 1024 bytes");
+    }
+
+    @Test
+    void rejectsUnsupportedEncodingsWith415() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(callback("br", BODY), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(415);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void passesIdentityAndOtherPathsThrough() throws Exception {
+        MockHttpServletRequest identity = callback("identity", BODY);
+        MockFilterChain identityChain = new MockFilterChain();
+        filter.doFilter(identity, new MockHttpServletResponse(), identityChain);
+        assertThat(identityChain.getRequest()).isSameAs(identity);
+
+        MockHttpServletRequest upload = new MockHttpServletRequest("POST", "/api/videos/upload");
+        upload.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        MockFilterChain uploadChain = new MockFilterChain();
+        filter.doFilter(upload, new MockHttpServletResponse(), uploadChain);
+        assertThat(uploadChain.getRequest()).isSameAs(upload);
+    }
+
+    private static MockHttpServletRequest callback(String encoding, byte[] content) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", CALLBACK_PATH);
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        request.setContentType("application/json");
+        request.setContent(content);
+        return request;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.videoservice.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.example.videoservice.model.ProcessingStatus.COMPLETED;
+import static com.example.videoservice.model.ProcessingStatus.FAILED;
+import static com.example.videoservice.model.ProcessingStatus.PENDING;
+import static com.example.videoservice.model.ProcessingStatus.PROCESSING;
+import static com.example.videoservice.model.ProcessingStatus.QUEUED;
+import static com.example.videoservice.model.ProcessingStatus.UPLOADED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pins the transition table every conditional status UPDATE is built from.
+ */
+class ProcessingStateMachineTests {
+
+    @ParameterizedTest(name = "{0} -> {1}: {2}")
+    @CsvSource({
+            "UPLOADED,   UPLOADED,   false",
+            "UPLOADED,   PENDING,    false",
+            "UPLOADED,   QUEUED,     true",
+            "UPLOADED,   PROCESSING, true",
+            "UPLOADED,   COMPLETED,  false",
+            "UPLOADED,   FAILED,     true",
+
+            "PENDING,    UPLOADED,   false",
+            "PENDING,    PENDING,    false",
+            "PENDING,    QUEUED,     true",
+            "PENDING,    PROCESSING, true",
+            "PENDING,    COMPLETED,  false",
+            "PENDING,    FAILED,     true",
+
+            "QUEUED,     UPLOADED,   false",
+            "QUEUED,     PENDING,    false",
+            "QUEUED,     QUEUED,     true",
+            "QUEUED,     PROCESSING, true",
+            "QUEUED,     COMPLETED,  true",
+            "QUEUED,     FAILED,     true",
+
+            "PROCESSING, UPLOADED,   false",
+            "PROCESSING, PENDING,    false",
+            "PROCESSING, QUEUED,     false",
+            "PROCESSING, PROCESSING, true",
+            "PROCESSING, COMPLETED,  true",
+            "PROCESSING, FAILED,     true",
+
+            "COMPLETED,  UPLOADED,   false",
+            "COMPLETED,  PENDING,    false",
+            "COMPLETED,  QUEUED,     false",
+            "COMPLETED,  PROCESSING, false",
+            "COMPLETED,  COMPLETED,  false",
+            "COMPLETED,  FAILED,     false",
+
+            "FAILED,     UPLOADED,   false",
+            "FAILED,     PENDING,    false",
+            "FAILED,     QUEUED,     false",
+            "FAILED,     PROCESSING, false",
+            "FAILED,     COMPLETED,  false",
+            "FAILED,     FAILED,     false",
+    })
+    void transitionTable(ProcessingStatus from, ProcessingStatus to, boolean allowed) {
+        assertThat(ProcessingStateMachine.canTransition(from, to)).isEqualTo(allowed);
+        assertThat(ProcessingStateMachine.sourcesOf(to).contains(from)).isEqualTo(allowed);
+    }
+
+    @Test
+    void sourcesOfEachTarget() {
+        assertThat(ProcessingStateMachine.sourcesOf(QUEUED)).containsExactlyInAnyOrder(UPLOADED, PENDING, QUEUED);
+        assertThat(ProcessingStateMachine.sourcesOf(PROCESSING))
+                .containsExactlyInAnyOrder(UPLOADED, PENDING, QUEUED, PROCESSING);
+        assertThat(ProcessingStateMachine.sourcesOf(COMPLETED)).containsExactlyInAnyOrder(QUEUED, PROCESSING);
+        assertThat(ProcessingStateMachine.sourcesOf(FAILED))
+                .containsExactlyInAnyOrder(UPLOADED, PENDING, QUEUED, PROCESSING);
+        assertThat(ProcessingStateMachine.sourcesOf(UPLOADED)).isEmpty();
+        assertThat(ProcessingStateMachine.sourcesOf(PENDING)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ProcessingStatus.class, names = {"COMPLETED", "FAILED"})
+    void terminalStatusesNeverLeaveOrReenter(ProcessingStatus terminal) {
+        for (ProcessingStatus target : ProcessingStatus.values()) {
+            assertThat(ProcessingStateMachine.canTransition(terminal, target)).isFalse();
+        }
+        Set<ProcessingStatus> terminalSources = EnumSet.copyOf(ProcessingStateMachine.sourcesOf(terminal));
+        terminalSources.retainAll(ProcessingStatus.TERMINAL);
+        assertThat(terminalSources).isEmpty();
+    }
+
+    @Test
+    void sourcesAreImmutable() {
+        Set<ProcessingStatus> sources = ProcessingStateMachine.sourcesOf(COMPLETED);
+        assertThatThrownBy(() -> sources.add(FAILED))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @ParameterizedTest
+    @CsvSource(value = {
+            "completed,    COMPLETED",
+            "' Processing ', PROCESSING",
+            "FAILED,       FAILED",
+            "unknown,      NULL",
+            "'',           NULL",
+    }, nullValues = "NULL")
+    void parse(String text, ProcessingStatus expected) {
+        assertThat(ProcessingStateMachine.parse(text)).isEqualTo(expected);
+    }
+
+    @Test
+    void parseNull() {
+        assertThat(ProcessingStateMachine.parse(null)).isNull();
+    }
+}
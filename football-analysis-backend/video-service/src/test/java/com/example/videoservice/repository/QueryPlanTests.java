@@ -0,0 +1,273 @@
+package com.example.videoservice.repository;
+
+import com.example.videoservice.service.AnalyticsMaterializer;
+import com.example.videoservice.service.AnalyticsMigrationService;
+import com.example.videoservice.service.LibraryCountListener;
+import com.example.videoservice.service.VideoStatusCacheListener;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a real PostgreSQL, calls the repositories and scheduled jobs, and
+ * explains exactly the statements they sent, with the parameters they bound. Sequential scans are disabled
+ * so the planner picks an index whenever one applies, even on the small seeded tables.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTests {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final List<ExecutedStatement> EXECUTED = new ArrayList<>();
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static EntityManagerFactory entityManagerFactory;
+    private static EntityManager entityManager;
+    private static VideoRepository videoRepository;
+    private static VideoAnalyticsRepository videoAnalyticsRepository;
+    private static AnalyticsMigrationService analyticsMigrationService;
+    private static AnalyticsMaterializer analyticsMaterializer;
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new SingleConnectionDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword(), true);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("INSERT INTO videos (user_id, title, original_file_key, file_path, processing_status, " +
+                "processing_job_id) SELECT 'user-' || (n % 50), 'Match ' || n, 'videos/' || n, 'videos/' || n, " +
+                "CASE WHEN n % 20 = 0 THEN 'PROCESSING' WHEN n % 20 = 1 THEN 'QUEUED' ELSE 'COMPLETED' END, " +
+                "CASE WHEN n % 20 = 0 THEN 'job-' || n END FROM generate_series(1, 5000) n");
+        jdbcTemplate.execute("INSERT INTO video_analytics (video_id, analysis_type) " +
+                "SELECT id, 'TEAM_STATISTICS' FROM videos");
+        jdbcTemplate.execute("ANALYZE");
+        jdbcTemplate.execute("SET enable_seqscan = off");
+
+        DataSource recording = new RecordingDataSource(dataSource);
+        entityManagerFactory = entityManagerFactory(recording);
+        entityManager = entityManagerFactory.createEntityManager();
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+        videoRepository = repositories.getRepository(VideoRepository.class);
+        videoAnalyticsRepository = repositories.getRepository(VideoAnalyticsRepository.class);
+
+        JdbcTemplate recordingJdbcTemplate = new JdbcTemplate(recording);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(recording));
+
+        analyticsMigrationService = new AnalyticsMigrationService(recordingJdbcTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(analyticsMigrationService, "enabled", true);
+        ReflectionTestUtils.setField(analyticsMigrationService, "batchSize", 100);
+
+        analyticsMaterializer = new AnalyticsMaterializer(videoRepository, videoAnalyticsRepository,
+                repositories.getRepository(VideoAnalyticsPayloadRepository.class), recordingJdbcTemplate,
+                transactionTemplate);
+        ReflectionTestUtils.setField(analyticsMaterializer, "backfillEnabled", true);
+        ReflectionTestUtils.setField(analyticsMaterializer, "batchSize", 100);
+    }
+
+    @AfterAll
+    static void close() {
+        entityManager.close();
+        entityManagerFactory.close();
+        dataSource.destroy();
+    }
+
+    @BeforeEach
+    void clearRecording() {
+        EXECUTED.clear();
+        entityManager.clear();
+    }
+
+    @Test
+    void libraryFirstPageUsesKeysetIndex() {
+        videoRepository.findFirstListItems("user-7", Pageable.ofSize(11));
+
+        assertThat(planOfOnlyStatement())
+                .contains("idx_videos_user_created_id")
+                .doesNotContain("Sort");
+    }
+
+    @Test
+    void libraryNextPageSeeksOnKeysetIndex() {
+        videoRepository.findListItemsAfter("user-7", LocalDateTime.now(), 4000L, Pageable.ofSize(11));
+
+        assertThat(planOfOnlyStatement())
+                .contains("idx_videos_user_created_id")
+                .doesNotContain("Sort");
+    }
+
+    @Test
+    void activeVideosOfUserUsePartialIndex() {
+        assertThat(videoRepository.findActiveStatusesByUserId("user-1")).isNotEmpty();
+
+        assertThat(planOfOnlyStatement()).contains("idx_videos_active_by_user");
+    }
+
+    @Test
+    void jobIdLookupUsesPartialIndex() {
+        assertThat(videoRepository.findIdByProcessingJobId("job-40")).isPresent();
+
+        assertThat(planOfOnlyStatement()).contains("idx_videos_processing_job_id");
+    }
+
+    @Test
+    void analyticsByVideoUseCompositeIndex() {
+        videoAnalyticsRepository.findByVideoId(42L);
+        assertThat(planOfOnlyStatement()).contains("idx_video_analytics_video_type");
+
+        EXECUTED.clear();
+        videoAnalyticsRepository.findByVideoIdIn(List.of(42L, 43L, 44L));
+        assertThat(planOfOnlyStatement()).contains("idx_video_analytics_video_type");
+    }
+
+    @Test
+    void statusByIdsUsesAnIndex() {
+        videoRepository.findStatusesByIdInAndUserId(List.of(1L, 2L, 3L), "user-1");
+
+        assertThat(planOfOnlyStatement()).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void legacyAnalyticsScansUsePartialIndexes() {
+        analyticsMigrationService.migrateBatch();
+        assertThat(planOfOnlyStatement()).contains("idx_videos_legacy_analytics");
+
+        EXECUTED.clear();
+        analyticsMigrationService.migrateBatch();
+        assertThat(planOfOnlyStatement()).contains("idx_analytics_payloads_text");
+    }
+
+    @Test
+    void analyticsBackfillScanUsesAnIndex() {
+        analyticsMaterializer.drain();
+
+        assertThat(planOfOnlyStatement()).doesNotContain("Seq Scan");
+    }
+
+    private static EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+        // The entity listeners are Spring components; none of them fires on reads
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("videoStatusCacheListener", new VideoStatusCacheListener(null));
+        beans.registerSingleton("libraryCountListener", new LibraryCountListener(null));
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.example.videoservice.model");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beans)));
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+
+    private static String planOfOnlyStatement() {
+        assertThat(EXECUTED).hasSize(1);
+        ExecutedStatement statement = EXECUTED.get(0);
+        List<String> lines = jdbcTemplate.query("EXPLAIN " + statement.sql(), statement::bind,
+                (rs, rowNum) -> rs.getString(1));
+        return String.join("\n", lines);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A statement as the application executed it: its SQL and every parameter setter call, replayed
+     * onto the EXPLAIN statement so the planner sees the same values and types.
+     */
+    private record ExecutedStatement(String sql, List<Binding> bindings) {
+
+        void bind(PreparedStatement explain) throws SQLException {
+            for (Binding binding : bindings) {
+                try {
+                    binding.setter().invoke(explain, binding.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Cannot replay " + binding.setter().getName(), e);
+                }
+            }
+        }
+    }
+
+    private record Binding(Method setter, Object[] args) {
+    }
+
+    /**
+     * Hands out connections whose prepared statements are recorded into {@link #EXECUTED} when run.
+     */
+    private static final class RecordingDataSource extends DelegatingDataSource {
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement")) {
+                            return recording((PreparedStatement) result, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement recording(PreparedStatement statement, String sql) {
+            List<Binding> bindings = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            bindings.add(new Binding(method, args.clone()));
+                        } else if (name.equals("clearParameters")) {
+                            bindings.clear();
+                        } else if (name.equals("executeQuery") || name.equals("execute") || name.equals("executeUpdate")) {
+                            EXECUTED.add(new ExecutedStatement(sql, List.copyOf(bindings)));
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+    }
+}
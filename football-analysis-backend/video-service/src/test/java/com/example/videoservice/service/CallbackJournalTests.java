@@ -0,0 +1,232 @@
+package com.example.videoservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recovery behaviour of the journal against real segment files: torn tails, corrupt records,
+ * segment rollover and checkpoint replay.
+ */
+class CallbackJournalTests {
+
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private CallbackJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void readsBackAppendedRecordsWithTheirEndPositions() {
+        open(32);
+        long first = append("first");
+        long second = append("second");
+        journal.awaitDurable(second);
+
+        List<Record> records = readAll(0);
+        assertThat(records).extracting(Record::text).containsExactly("first", "second");
+        assertThat(records).extracting(Record::position).containsExactly(first, second);
+        assertThat(CallbackJournal.startOf(second, "second".length())).isEqualTo(first);
+        assertThat(journal.endPosition()).isEqualTo(second);
+    }
+
+    @Test
+    void truncatesACorruptTailRecordOnReopen() throws IOException {
+        open(32);
+        append("one");
+        long two = append("two");
+        long three = append("three");
+        journal.close();
+        journal = null;
+
+        // Flip a payload byte of the last record, as if its write had been torn
+        corrupt(segmentFile(0), CallbackJournal.startOf(three, "three".length()) + 8);
+        open(32);
+
+        assertThat(journal.endPosition()).isEqualTo(two);
+        assertThat(readAll(0)).extracting(Record::text).containsExactly("one", "two");
+
+        long four = append("four");
+        journal.awaitDurable(four);
+        assertThat(readAll(0)).extracting(Record::text).containsExactly("one", "two", "four");
+    }
+
+    @Test
+    void dropsARecordCutOffByATruncatedFile() throws IOException {
+        open(32);
+        append("one");
+        long two = append("two");
+        long three = append("three");
+        journal.close();
+        journal = null;
+
+        // Lose the tail of the segment file in the middle of the third record
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(0).toFile(), "rw")) {
+            file.setLength(three - 2);
+        }
+        open(32);
+
+        assertThat(journal.endPosition()).isEqualTo(two);
+        assertThat(readAll(0)).extracting(Record::text).containsExactly("one", "two");
+    }
+
+    @Test
+    void rollsOverToNewSegmentsAndReadsAcrossThem() throws IOException {
+        open(32);
+        List<String> written = new ArrayList<>();
+        long last = 0;
+        for (int i = 0; i < 7; i++) {
+            String text = large(i);
+            written.add(text);
+            last = append(text);
+        }
+        journal.awaitDurable(last);
+
+        assertThat(segmentFiles()).hasSize(3);
+        assertThat(last / SEGMENT_SIZE).isEqualTo(2);
+        assertThat(readAll(0)).extracting(Record::text).containsExactlyElementsOf(written);
+
+        reopen();
+        assertThat(journal.endPosition()).isEqualTo(last);
+        assertThat(readAll(0)).extracting(Record::text).containsExactlyElementsOf(written);
+    }
+
+    @Test
+    void refusesAppendsWhenAllSegmentsAreUnappliedUntilACheckpointFreesOne() throws IOException {
+        open(2);
+        for (int i = 0; i < 6; i++) {
+            append(large(i));
+        }
+
+        assertThat(journal.append(large(6).getBytes(StandardCharsets.UTF_8))).isEqualTo(-1);
+
+        journal.checkpoint(SEGMENT_SIZE, true);
+        assertThat(segmentFile(0)).doesNotExist();
+
+        long position = append(large(6));
+        assertThat(position / SEGMENT_SIZE).isEqualTo(2);
+        journal.awaitDurable(position);
+        assertThat(readAll(journal.checkpointPosition())).extracting(Record::text)
+                .containsExactly(large(3), large(4), large(5), large(6));
+    }
+
+    @Test
+    void replaysOnlyRecordsAfterTheCheckpoint() {
+        open(32);
+        append("a");
+        long b = append("b");
+        append("c");
+        append("d");
+        journal.checkpoint(b, true);
+        reopen();
+
+        assertThat(journal.checkpointPosition()).isEqualTo(b);
+        assertThat(readAll(journal.checkpointPosition())).extracting(Record::text).containsExactly("c", "d");
+    }
+
+    @Test
+    void replaysEverythingWhenTheCheckpointFileIsCorrupt() throws IOException {
+        open(32);
+        append("a");
+        long b = append("b");
+        journal.checkpoint(b, true);
+        journal.close();
+        journal = null;
+
+        corrupt(directory.resolve("checkpoint"), 3);
+        open(32);
+
+        assertThat(journal.checkpointPosition()).isZero();
+        assertThat(readAll(0)).extracting(Record::text).containsExactly("a", "b");
+    }
+
+    @Test
+    void readStopsAtMaxRecordsAndResumesFromReturnedPosition() {
+        open(32);
+        for (String text : List.of("a", "b", "c", "d", "e")) {
+            append(text);
+        }
+
+        List<Record> firstPage = new ArrayList<>();
+        long next = journal.read(0, 2, (position, payload) -> firstPage.add(new Record(position, payload)));
+        assertThat(firstPage).extracting(Record::text).containsExactly("a", "b");
+        assertThat(next).isEqualTo(firstPage.get(1).position());
+
+        assertThat(readAll(next)).extracting(Record::text).containsExactly("c", "d", "e");
+    }
+
+    private void open(int maxSegments) {
+        journal = new CallbackJournal(directory.toString(), 1, maxSegments, 0);
+        journal.open();
+    }
+
+    private void reopen() {
+        journal.close();
+        journal = new CallbackJournal(directory.toString(), 1, 32, 0);
+        journal.open();
+    }
+
+    private long append(String text) {
+        long position = journal.append(text.getBytes(StandardCharsets.UTF_8));
+        assertThat(position).isPositive();
+        return position;
+    }
+
+    private List<Record> readAll(long from) {
+        List<Record> records = new ArrayList<>();
+        journal.read(from, Integer.MAX_VALUE, (position, payload) -> records.add(new Record(position, payload)));
+        return records;
+    }
+
+    // Three of these fit in one 1 MB segment
+    private static String large(int index) {
+        char[] filler = new char[300 * 1024];
+        Arrays.fill(filler, (char) ('a' + index));
+        return index + new String(filler);
+    }
+
+    private static void corrupt(Path file, long offset) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(offset);
+            int value = raf.read();
+            raf.seek(offset);
+            raf.write(value ^ 0xFF);
+        }
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve(String.format("%020d.journal", segment));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".journal")).toList();
+        }
+    }
+
+    private record Record(long position, byte[] payload) {
+        String text() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+}
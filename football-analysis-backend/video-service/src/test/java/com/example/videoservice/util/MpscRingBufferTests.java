@@ -0,0 +1,135 @@
+package com.example.videoservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpscRingBufferTests {
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new MpscRingBuffer<>(2).capacity()).isEqualTo(2);
+        assertThat(new MpscRingBuffer<>(5).capacity()).isEqualTo(8);
+        assertThat(new MpscRingBuffer<>(8).capacity()).isEqualTo(8);
+        assertThatThrownBy(() -> new MpscRingBuffer<>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsOffersWhenFullAndAcceptsAgainAfterPoll() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.offer(5)).isFalse();
+        assertThat(drainAll(buffer)).containsExactly(1, 2, 3, 4);
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void keepsFifoOrderAcrossManyWraparounds() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        List<Integer> received = new ArrayList<>();
+
+        int next = 0;
+        for (int round = 0; round < 1000; round++) {
+            int burst = round % 4 + 1;
+            for (int i = 0; i < burst; i++) {
+                assertThat(buffer.offer(next++)).isTrue();
+            }
+            buffer.drain(received::add, round % 3 + 1);
+            received.addAll(drainAll(buffer));
+        }
+
+        assertThat(received).hasSize(next);
+        for (int i = 0; i < next; i++) {
+            assertThat(received.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void drainStopsAtLimit() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(i);
+        }
+
+        List<Integer> received = new ArrayList<>();
+        assertThat(buffer.drain(received::add, 4)).isEqualTo(4);
+        assertThat(received).containsExactly(0, 1, 2, 3);
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (long i = 0; i < perProducer; i++) {
+                        long[] element = {producer, i};
+                        while (!buffer.offer(element)) {
+                            if (Thread.currentThread().isInterrupted()) {
+                                return;
+                            }
+                            Thread.yield();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+
+            long[] expectedNext = new long[producers];
+            int received = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received < producers * perProducer && System.nanoTime() < deadline) {
+                long[] element = buffer.poll();
+                if (element == null) {
+                    Thread.yield();
+                    continue;
+                }
+                int producer = (int) element[0];
+                assertThat(element[1]).isEqualTo(expectedNext[producer]);
+                expectedNext[producer]++;
+                received++;
+            }
+
+            assertThat(received).isEqualTo(producers * perProducer);
+            assertThat(buffer.poll()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <E> List<E> drainAll(MpscRingBuffer<E> buffer) {
+        List<E> elements = new ArrayList<>();
+        buffer.drain(elements::add, Integer.MAX_VALUE);
+        return elements;
+    }
+}
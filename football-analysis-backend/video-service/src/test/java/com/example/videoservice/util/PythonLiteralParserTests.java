@@ -0,0 +1,98 @@
+package com.example.videoservice.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PythonLiteralParserTests {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Test
+    void keywordsBecomeJsonLiterals() throws IOException {
+        assertThat(toJson("{'a': True, 'b': False, 'c': None, 'd': nan, 'e': -inf}"))
+                .isEqualTo("{\"a\":true,\"b\":false,\"c\":null,\"d\":null,\"e\":null}");
+    }
+
+    @Test
+    void keywordsInsideStringsAreKept() throws IOException {
+        assertThat(toJson("{'note': 'True or False, None of it', \"None\": 'x'}"))
+                .isEqualTo("{\"note\":\"True or False, None of it\",\"None\":\"x\"}");
+    }
+
+    @Test
+    void escapedQuotes() throws IOException {
+        assertThat(toJson("['it\\'s', \"say \\\"hi\\\"\", \"it's\", r'a\\'b']"))
+                .isEqualTo("[\"it's\",\"say \\\"hi\\\"\",\"it's\",\"a\\\\'b\"]");
+    }
+
+    @Test
+    void escapeSequences() throws IOException {
+        assertThat(toJson("'tab\\there\\n\\x41\\u00e9\\101'")).isEqualTo("\"tab\\there\\nAéA\"");
+    }
+
+    @Test
+    void nestedDictsAndLists() throws IOException {
+        assertThat(toJson("{'team_stats': {'passes': [1, 2, {'x': [3.5, -4]}]}, 'ok': [[], {}]}"))
+                .isEqualTo("{\"team_stats\":{\"passes\":[1,2,{\"x\":[3.5,-4]}]},\"ok\":[[],{}]}");
+    }
+
+    @Test
+    void tuplesAndSetsBecomeArrays() throws IOException {
+        assertThat(toJson("{'pos': (1, 2), 'one': (3,), 'empty': (), 'ids': {4, 5}}"))
+                .isEqualTo("{\"pos\":[1,2],\"one\":[3],\"empty\":[],\"ids\":[4,5]}");
+    }
+
+    @Test
+    void numbers() throws IOException {
+        assertThat(toJson("[0, -7, 1_000, 2.5e3, 123456789012345678901234567890]"))
+                .isEqualTo("[0,-7,1000,2500.0,123456789012345678901234567890]");
+    }
+
+    @Test
+    void constructorCallsAndTrailingCommas() throws IOException {
+        assertThat(toJson("{'speed': np.float64(1.5), 'stats': Stats(a=1, b='x'), 'ids': set(), 'n': [1, 2,],}"))
+                .isEqualTo("{\"speed\":1.5,\"stats\":{\"a\":1,\"b\":\"x\"},\"ids\":[],\"n\":[1,2]}");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "{'a': 1",
+            "{'a' 1}",
+            "[1, 2",
+            "'unterminated",
+            "{'a': 1} extra",
+            "[1 2]",
+            "'\\x4'",
+            "@",
+    })
+    void malformedInputIsRejected(String text) {
+        assertThatThrownBy(() -> toJson(text))
+                .isInstanceOf(PythonLiteralParser.SyntaxException.class);
+    }
+
+    @Test
+    void deepNestingIsRejected() {
+        String text = "[".repeat(1000) + "]".repeat(1000);
+        assertThatThrownBy(() -> toJson(text))
+                .isInstanceOf(PythonLiteralParser.SyntaxException.class)
+                .hasMessageContaining("Nesting too deep");
+    }
+
+    private static String toJson(String text) throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = JSON.createGenerator(json)) {
+            PythonLiteralParser.transcode(text, generator);
+        }
+        return json.toString();
+    }
+}